@@ -1,28 +1,41 @@
 package com.unipay.aspect;
 
 import com.unipay.annotation.Auditable;
+import com.unipay.payload.UserDetailsImpl;
+import com.unipay.service.audit_log.AuditEvent;
+import com.unipay.service.audit_log.AuditEventPipeline;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+
+/**
+ * Turns every {@link Auditable} method call into a small {@link AuditEvent} for the
+ * {@link AuditEventPipeline}. Only the method signature, outcome and exception type are recorded;
+ * return values are never serialized.
+ */
 @Slf4j
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class SecurityAuditAspect {
 
-    @AfterReturning(
-            pointcut = "@annotation(auditable)",
-            returning = "result"
-    )
-    public void auditSuccess(JoinPoint joinPoint, Auditable auditable, Object result) {
-        log.info("✅ SECURITY SUCCESS: Action={} Method={} Result={}",
+    private final AuditEventPipeline auditEventPipeline;
+
+    @AfterReturning(pointcut = "@annotation(auditable)")
+    public void auditSuccess(JoinPoint joinPoint, Auditable auditable) {
+        log.info("✅ SECURITY SUCCESS: Action={} Method={}",
                 auditable.action(),
-                joinPoint.getSignature().toShortString(),
-                result
+                joinPoint.getSignature().toShortString()
         );
+        publish(auditable, "SUCCESS " + joinPoint.getSignature().toShortString());
     }
 
     @AfterThrowing(
@@ -35,5 +48,18 @@ public class SecurityAuditAspect {
                 joinPoint.getSignature().toShortString(),
                 ex.getMessage()
         );
+        publish(auditable, "FAILURE " + joinPoint.getSignature().toShortString() + " " + ex.getClass().getSimpleName());
+    }
+
+    private void publish(Auditable auditable, String details) {
+        auditEventPipeline.publish(new AuditEvent(currentUserId(), auditable.action(), details, Instant.now()));
+    }
+
+    private String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return principal.getUserId();
+        }
+        return null;
     }
 }
@@ -0,0 +1,56 @@
+package com.unipay.config;
+
+import com.unipay.security.throttle.InMemoryLoginThrottle;
+import com.unipay.security.throttle.LoginThrottle;
+import com.unipay.security.throttle.RedisLoginThrottle;
+import com.unipay.security.throttle.ThrottleLimit;
+import com.unipay.security.throttle.ThrottleScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Selects the {@link LoginThrottle} store.
+ *
+ * <p>{@code security.login-throttle.store=memory} (the default) keeps lock-free buckets per node;
+ * {@code security.login-throttle.store=redis} shares counters across nodes.</p>
+ */
+@Configuration
+public class LoginThrottleConfig {
+
+    @Value("${security.login-throttle.ip.limit:20}")
+    private int ipLimit;
+
+    @Value("${security.login-throttle.ip.period-ms:60000}")
+    private long ipPeriodMs;
+
+    @Value("${security.login-throttle.account.limit:5}")
+    private int accountLimit;
+
+    @Value("${security.login-throttle.account.period-ms:60000}")
+    private long accountPeriodMs;
+
+    @Bean
+    @ConditionalOnProperty(name = "security.login-throttle.store", havingValue = "memory", matchIfMissing = true)
+    public LoginThrottle inMemoryLoginThrottle(@Value("${security.login-throttle.maximum-keys:100000}") long maximumKeys) {
+        return new InMemoryLoginThrottle(limits(), maximumKeys);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "security.login-throttle.store", havingValue = "redis")
+    public LoginThrottle redisLoginThrottle(StringRedisTemplate redisTemplate) {
+        return new RedisLoginThrottle(redisTemplate, limits());
+    }
+
+    private Map<ThrottleScope, ThrottleLimit> limits() {
+        Map<ThrottleScope, ThrottleLimit> limits = new EnumMap<>(ThrottleScope.class);
+        limits.put(ThrottleScope.IP, new ThrottleLimit(ipLimit, ipPeriodMs));
+        limits.put(ThrottleScope.ACCOUNT, new ThrottleLimit(accountLimit, accountPeriodMs));
+        return limits;
+    }
+}
@@ -0,0 +1,104 @@
+package com.unipay.config;
+
+import com.unipay.datasource.ReadYourWritesTracker;
+import com.unipay.datasource.ReplicaLagMonitor;
+import com.unipay.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a read replica.
+ *
+ * <p>The application data source is a {@link LazyConnectionDataSourceProxy} over the primary pool
+ * ({@code spring.datasource.*}). It fetches a physical connection only on the first statement, so by then
+ * it knows whether the transaction is read-only. Read-only transactions get their connection from a
+ * {@link ReplicaRoutingDataSource}: the replica pool ({@code datasource.replica.*}), or the primary when
+ * the replica lags or the caller has just written. All other work stays on the primary. Enabled with
+ * {@code datasource.replica.enabled=true}.</p>
+ *
+ * <p>Routing is decided per connection, so each transaction needs its own. Open-in-view would hold the
+ * first transaction's connection for the rest of the request; {@link ReplicaOpenInViewEnvironmentPostProcessor}
+ * switches it off, and startup fails if it is explicitly enabled.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replica.max-lag-ms:1000}") long maxLagMs) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.replica.sticky-ms:5000}") long stickyMs,
+            @Value("${datasource.replica.sticky-maximum-size:100000}") long maximumSize) {
+        return new ReadYourWritesTracker(stickyMs, maximumSize);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            ReadYourWritesTracker readYourWritesTracker,
+            MeterRegistry meterRegistry,
+            @Value("${spring.jpa.open-in-view:false}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("spring.jpa.open-in-view must be false when datasource.replica.enabled "
+                    + "is true, otherwise a write after a read-only transaction runs on the replica");
+        }
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(primaryDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaLagMonitor, readYourWritesTracker, meterRegistry));
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+}
@@ -0,0 +1,32 @@
+package com.unipay.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Turns off {@code spring.jpa.open-in-view} when {@code datasource.replica.enabled=true}.
+ *
+ * <p>With open-in-view, one entity manager, and so one connection, serves the whole request. The first
+ * transaction decides which database that connection comes from, so a read-only lookup followed by a
+ * write in the same request would send the write to the replica. Without it every transaction gets its
+ * own entity manager and {@link ReplicaDataSourceConfig} routes each one separately. An explicit
+ * {@code spring.jpa.open-in-view} is left alone; {@link ReplicaDataSourceConfig} refuses to start if it
+ * is {@code true}.</p>
+ */
+public class ReplicaOpenInViewEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String OPEN_IN_VIEW = "spring.jpa.open-in-view";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("datasource.replica.enabled", Boolean.class, false)
+                && !environment.containsProperty(OPEN_IN_VIEW)) {
+            environment.getPropertySources().addLast(
+                    new MapPropertySource("replicaOpenInView", Map.of(OPEN_IN_VIEW, "false")));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.unipay.config;
+
+import com.unipay.service.role.LocalRoleRegistryRefreshBus;
+import com.unipay.service.role.RedisRoleRegistryRefreshBus;
+import com.unipay.service.role.RoleRegistryRefreshBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Selects the {@link RoleRegistryRefreshBus} implementation.
+ *
+ * <p>{@code role.registry.broadcast=local} (the default) only reloads the registry on the node that
+ * changed a role. {@code role.registry.broadcast=redis} broadcasts the reload over Redis pub/sub.</p>
+ */
+@Configuration
+public class RoleRegistryConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "role.registry.broadcast", havingValue = "local", matchIfMissing = true)
+    public RoleRegistryRefreshBus localRoleRegistryRefreshBus() {
+        return new LocalRoleRegistryRefreshBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "role.registry.broadcast", havingValue = "redis")
+    public RedisMessageListenerContainer roleRegistryListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "role.registry.broadcast", havingValue = "redis")
+    public RoleRegistryRefreshBus redisRoleRegistryRefreshBus(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer roleRegistryListenerContainer,
+            @Value("${role.registry.channel:unipay:role-registry}") String channel) {
+        return new RedisRoleRegistryRefreshBus(redisTemplate, roleRegistryListenerContainer, channel);
+    }
+}
@@ -43,6 +43,8 @@ public class SecurityConfig {
 
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/v1/auth/**", "/api/public/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("VIEW_METRICS")
                         .anyRequest().authenticated()
                 );
 
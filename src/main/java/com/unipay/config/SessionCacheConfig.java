@@ -0,0 +1,46 @@
+package com.unipay.config;
+
+import com.unipay.service.session.LocalSessionInvalidationBus;
+import com.unipay.service.session.RedisSessionInvalidationBus;
+import com.unipay.service.session.SessionInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Selects the {@link SessionInvalidationBus} implementation.
+ *
+ * <p>{@code session.cache.invalidation=local} (the default) keeps invalidations inside the JVM.
+ * {@code session.cache.invalidation=redis} broadcasts them over Redis pub/sub so that several
+ * application nodes share revocations.</p>
+ */
+@Configuration
+public class SessionCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "session.cache.invalidation", havingValue = "local", matchIfMissing = true)
+    public SessionInvalidationBus localSessionInvalidationBus() {
+        return new LocalSessionInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "session.cache.invalidation", havingValue = "redis")
+    public RedisMessageListenerContainer sessionInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "session.cache.invalidation", havingValue = "redis")
+    public SessionInvalidationBus redisSessionInvalidationBus(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer sessionInvalidationListenerContainer,
+            @Value("${session.cache.channel:unipay:session-invalidation}") String channel) {
+        return new RedisSessionInvalidationBus(redisTemplate, sessionInvalidationListenerContainer, channel);
+    }
+}
@@ -0,0 +1,35 @@
+package com.unipay.config;
+
+import com.unipay.monitoring.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "sql-metrics.enabled", havingValue = "true")
+public class SqlMetricsConfig {
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    /**
+     * Wraps the application data source so per-request SQL statistics see every statement, whether it is
+     * issued by Hibernate or by a {@code JdbcTemplate}. Pools behind it, such as the primary and replica of
+     * {@link ReplicaDataSourceConfig}, are not wrapped again, so no statement is counted twice.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (APPLICATION_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
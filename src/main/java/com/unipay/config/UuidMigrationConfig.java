@@ -0,0 +1,22 @@
+package com.unipay.config;
+
+import com.unipay.service.migration.UuidColumnMigrationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "uuid-migration.enabled", havingValue = "true")
+public class UuidMigrationConfig {
+
+    /**
+     * Creates the entity manager factory only after {@link UuidColumnMigrationService} has converted the
+     * identifier columns, so Hibernate never binds {@code uuid} values against {@code varchar} columns and
+     * the web server does not accept requests while tables are being rewritten.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor uuidMigrationEntityManagerFactoryDependsOn() {
+        return new EntityManagerFactoryDependsOnPostProcessor(UuidColumnMigrationService.class);
+    }
+}
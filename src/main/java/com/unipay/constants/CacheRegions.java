@@ -0,0 +1,11 @@
+package com.unipay.constants;
+
+/**
+ * Hibernate second-level cache regions; each one is sized in {@code application.conf}.
+ */
+public class CacheRegions {
+    public static final String ROLE = "reference-role";
+    public static final String PERMISSION = "reference-permission";
+    public static final String ROLE_PERMISSIONS = "reference-role-permissions";
+    public static final String REFERENCE_QUERIES = "reference-queries";
+}
@@ -0,0 +1,50 @@
+package com.unipay.constants;
+
+import com.unipay.utils.FieldSet;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fields selectable with {@code fields=} on the user and business listings.
+ */
+public class FieldSets {
+
+    public static final FieldSet USERS = FieldSet.of(orderedMap(
+            "id", "id",
+            "username", "username",
+            "email", "email",
+            "status", "status",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt",
+            "fullName", "profile.fullName",
+            "dateOfBirth", "profile.dateOfBirth",
+            "phoneNumber", "profile.phoneNumber",
+            "gender", "profile.gender",
+            "nationality", "profile.nationality",
+            "preferredLanguage", "settings.preferredLanguage",
+            "timezone", "settings.timezone",
+            "emailNotificationsEnabled", "settings.emailNotificationsEnabled",
+            "mfaEnabled", "mfaSettings.enabled"
+    ), List.of("username", "email", "status", "createdAt", "updatedAt"));
+
+    public static final FieldSet BUSINESSES = FieldSet.of(orderedMap(
+            "id", "id",
+            "legalName", "legalName",
+            "taxId", "taxId",
+            "registrationNumber", "registrationNumber",
+            "verified", "verified",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt",
+            "userId", "user.id"
+    ), List.of("legalName", "taxId", "registrationNumber", "verified"));
+
+    private static Map<String, String> orderedMap(String... pairs) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            map.put(pairs[i], pairs[i + 1]);
+        }
+        return map;
+    }
+}
@@ -14,4 +14,11 @@ public class ResourcePaths {
     public static final String ADDRESS = "/address";
     public static final String FORGOT_PASSWORD = "/forgot-password";
     public static final String BUSINESSES = "/businesses";
+    public static final String SCROLL = "/scroll";
+    public static final String SEARCH = "/search";
+    public static final String AUDIT_LOGS = "/audit-logs";
+    public static final String LOGIN_HISTORY = "/login-history";
+    public static final String IMPORT = "/import";
+    public static final String EXPORT = "/export";
+    public static final String TRANSACTIONS = "/transactions";
 }
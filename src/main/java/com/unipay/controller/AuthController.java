@@ -8,6 +8,8 @@ import com.unipay.models.User;
 import com.unipay.response.EmailConfirmationResponse;
 import com.unipay.response.LoginResponse;
 import com.unipay.response.UserRegistrationResponse;
+import com.unipay.security.fingerprint.RequestFingerprintResolver;
+import com.unipay.security.throttle.LoginThrottleGuard;
 import com.unipay.service.authentication.AuthenticationService;
 import com.unipay.service.mail.EmailService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +28,8 @@ public class AuthController {
     private final UserMapper userMapper;
     private final EmailService emailService;
     private final AuthenticationService authenticationService;
+    private final LoginThrottleGuard loginThrottleGuard;
+    private final RequestFingerprintResolver requestFingerprintResolver;
 
 
     @PostMapping(REGISTER)
@@ -36,6 +40,7 @@ public class AuthController {
 
     @PostMapping(LOGIN)
     public ResponseEntity<LoginResponse> login(@RequestBody LoginCommand command, HttpServletRequest request) {
+        loginThrottleGuard.checkLoginAllowed(requestFingerprintResolver.resolveClientIp(request), command.getEmail());
         LoginResponse response = authenticationService.login(command, request);
         return ResponseEntity.ok(response);
     }
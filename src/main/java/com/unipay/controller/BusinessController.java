@@ -1,10 +1,9 @@
 package com.unipay.controller;
 
 import com.unipay.command.CreateBusinessCommand;
-import com.unipay.dto.BusinessDto;
-import com.unipay.mapper.BusinessMapper;
 import com.unipay.models.Business;
 import com.unipay.models.User;
+import com.unipay.response.CursorPage;
 import com.unipay.service.authentication.AuthenticationService;
 import com.unipay.service.business.BusinessService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,8 +19,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.Map;
 
 import static com.unipay.constants.ResourcePaths.BUSINESSES;
+import static com.unipay.constants.ResourcePaths.SCROLL;
 import static com.unipay.constants.ResourcePaths.V1;
 
 /**
@@ -33,7 +34,6 @@ import static com.unipay.constants.ResourcePaths.V1;
 public class BusinessController {
 
 
-    private final BusinessMapper businessMapper;
     private final BusinessService businessService;
     private final AuthenticationService authenticationService;
 
@@ -62,35 +62,57 @@ public class BusinessController {
     /**
      * Get Business by ID.
      */
-    @Operation(summary = "Get Business", description = "Retrieves a business by its ID")
+    @Operation(summary = "Get Business", description = "Retrieves the requested fields of a business by its ID " +
+            "(fields is comma-separated; defaults to legalName, taxId, registrationNumber, verified)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Business found",
-                    content = @Content(schema = @Schema(implementation = Business.class))),
+            @ApiResponse(responseCode = "200", description = "Business found"),
+            @ApiResponse(responseCode = "400", description = "Unknown field", content = @Content),
             @ApiResponse(responseCode = "404", description = "Business not found", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Business> getBusinessById(
-            @PathVariable String id) {
-        Business business = businessService.findById(id);
-        return ResponseEntity.ok(business);
+    public ResponseEntity<Map<String, Object>> getBusinessById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(businessService.findFieldsById(id, fields));
     }
 
     /**
      * Get Business of current user.
      */
-    @Operation(summary = "Get My Business", description = "Retrieves the business associated with the authenticated user")
+    @Operation(summary = "Get My Business", description = "Retrieves the requested fields of the businesses associated " +
+            "with the authenticated user")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Business found",
-                    content = @Content(schema = @Schema(implementation = Business.class))),
-            @ApiResponse(responseCode = "404", description = "Business for user not found", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Business found"),
+            @ApiResponse(responseCode = "400", description = "Unknown field", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
     })
     @GetMapping()
-    public ResponseEntity<Page<BusinessDto>> getMyBusiness(Pageable pageable) {
+    public ResponseEntity<Page<Map<String, Object>>> getMyBusiness(
+            @RequestParam(required = false) String fields,
+            Pageable pageable) {
+        User user = authenticationService.getCurrentUser();
+        return ResponseEntity.ok(businessService.findForCurrentUser(pageable, user, fields));
+    }
+
+    /**
+     * Scroll through the current user's Businesses.
+     */
+    @Operation(summary = "Scroll My Businesses", description = "Retrieves the authenticated user's businesses, newest first, " +
+            "one slice at a time; pass the returned nextCursor to get the following slice")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Businesses retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    })
+    @GetMapping(SCROLL)
+    public ResponseEntity<CursorPage<Map<String, Object>>> scrollMyBusinesses(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean count) {
         User user = authenticationService.getCurrentUser();
-        Page<Business> business = businessService.findForCurrentUser(pageable, user);
-        return ResponseEntity.ok(business.map(businessMapper::toDto));
+        return ResponseEntity.ok(businessService.scrollForUser(user, fields, cursor, size, count));
     }
 
     /**
@@ -1,21 +1,52 @@
 package com.unipay.controller;
 
 import com.unipay.criteria.UserCriteria;
-import com.unipay.dto.UserDto;
-import com.unipay.mapper.UserMapper;
-import com.unipay.models.User;
+import com.unipay.dto.AuditLogDto;
+import com.unipay.dto.LoginHistoryDto;
+import com.unipay.enums.DataFormat;
+import com.unipay.exception.BusinessException;
+import com.unipay.exception.ExceptionPayloadFactory;
+import com.unipay.mapper.AuditLogMapper;
+import com.unipay.mapper.LoginHistoryMapper;
+import com.unipay.models.AuditLog;
+import com.unipay.models.LoginHistory;
+import com.unipay.response.CursorPage;
+import com.unipay.response.UserImportResult;
 import com.unipay.response.UserRegistrationResponse;
+import com.unipay.service.audit_log.AuditLogService;
+import com.unipay.service.authentication.AuthenticationService;
+import com.unipay.service.export.DataExportService;
+import com.unipay.service.login_histroy.LoginHistoryService;
 import com.unipay.service.user.UserService;
+import com.unipay.service.user_import.UserImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static com.unipay.constants.ResourcePaths.AUDIT_LOGS;
+import static com.unipay.constants.ResourcePaths.CURRENT;
+import static com.unipay.constants.ResourcePaths.EXPORT;
+import static com.unipay.constants.ResourcePaths.IMPORT;
+import static com.unipay.constants.ResourcePaths.LOGIN_HISTORY;
+import static com.unipay.constants.ResourcePaths.SCROLL;
+import static com.unipay.constants.ResourcePaths.SEARCH;
+import static com.unipay.constants.ResourcePaths.TRANSACTIONS;
 import static com.unipay.constants.ResourcePaths.USERS;
 import static com.unipay.constants.ResourcePaths.V1;
 
@@ -29,9 +60,12 @@ import static com.unipay.constants.ResourcePaths.V1;
  *
  * Endpoints:
  * - POST /v1/users/register: Registers a new user with their profile and settings.
+ * - GET /v1/users/search: Ranked substring search over usernames and emails (requires MANAGE_USERS).
+ * - POST /v1/users/import: Creates users in bulk from an NDJSON or CSV upload (requires IMPORT_DATA).
+ * - GET /v1/users/export, /v1/users/transactions/export: Stream matching users or their transactions as
+ *   NDJSON or CSV (requires EXPORT_DATA).
  *
  * @see UserService
- * @see UserMapper
  * @see UserRegistrationResponse
  */
 @RestController
@@ -40,21 +74,166 @@ import static com.unipay.constants.ResourcePaths.V1;
 public class UserController {
 
     private final UserService userService;
-    private final UserMapper userMapper;
+    private final AuditLogService auditLogService;
+    private final AuditLogMapper auditLogMapper;
+    private final LoginHistoryService loginHistoryService;
+    private final LoginHistoryMapper loginHistoryMapper;
+    private final AuthenticationService authenticationService;
+    private final UserImportService userImportService;
+    private final DataExportService dataExportService;
 
 
     @Operation(
             summary = "Get users by criteria",
-            description = "Retrieves a paginated list of users based on filtering criteria",
+            description = "Retrieves a paginated list of users based on filtering criteria; fields selects the " +
+                    "returned fields (comma-separated, defaults to username, email, status, createdAt, updatedAt)",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
-                    @ApiResponse(responseCode = "400", description = "Invalid input")
+                    @ApiResponse(responseCode = "400", description = "Invalid input or unknown field")
             }
     )
     @GetMapping
-    public ResponseEntity<Page<UserDto>> getUsersByCriteria(UserCriteria criteria, Pageable pageable) {
-        Page<User> users = userService.getAllByCriteria(pageable, criteria);
-        Page<UserDto> userDtos = users.map(userMapper::toDto);
-        return ResponseEntity.ok(userDtos);
+    public ResponseEntity<Page<Map<String, Object>>> getUsersByCriteria(
+            UserCriteria criteria,
+            @RequestParam(required = false) String fields,
+            Pageable pageable) {
+        return ResponseEntity.ok(userService.getAllByCriteria(pageable, criteria, fields));
+    }
+
+    @Operation(
+            summary = "Scroll users by criteria",
+            description = "Retrieves users matching the filtering criteria, newest first, one slice at a time; " +
+                    "pass the returned nextCursor to get the following slice. fields selects the returned fields",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid input or cursor")
+            }
+    )
+    @GetMapping(SCROLL)
+    public ResponseEntity<CursorPage<Map<String, Object>>> scrollUsersByCriteria(
+            UserCriteria criteria,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return ResponseEntity.ok(userService.scrollByCriteria(criteria, fields, cursor, size, count));
+    }
+
+    @Operation(
+            summary = "Search users",
+            description = "Finds users whose username or email contains the term (or starts with it, for terms " +
+                    "shorter than three characters), exact and prefix matches first; fields selects the returned " +
+                    "fields as on the user listing",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Missing search term or unknown field")
+            }
+    )
+    @Secured("MANAGE_USERS")
+    @GetMapping(SEARCH)
+    public ResponseEntity<List<Map<String, Object>>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.search(q, fields, limit));
+    }
+
+    @Operation(
+            summary = "Scroll current user's audit logs",
+            description = "Retrieves the authenticated user's audit logs, newest first, one slice at a time",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Audit logs retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+            }
+    )
+    @GetMapping(CURRENT + AUDIT_LOGS)
+    public ResponseEntity<CursorPage<AuditLogDto>> scrollCurrentUserAuditLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        String userId = authenticationService.getCurrentUser().getId();
+        CursorPage<AuditLog> auditLogs = auditLogService.scrollAuditLogsByUserId(userId, cursor, size, count);
+        return ResponseEntity.ok(auditLogs.map(auditLogMapper::toDto));
+    }
+
+    @Operation(
+            summary = "Scroll current user's login history",
+            description = "Retrieves the authenticated user's login attempts, newest first, one slice at a time",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Login history retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+            }
+    )
+    @GetMapping(CURRENT + LOGIN_HISTORY)
+    public ResponseEntity<CursorPage<LoginHistoryDto>> scrollCurrentUserLoginHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        String userId = authenticationService.getCurrentUser().getId();
+        CursorPage<LoginHistory> loginHistory = loginHistoryService.scrollLoginHistoryByUserId(userId, cursor, size, count);
+        return ResponseEntity.ok(loginHistory.map(loginHistoryMapper::toDto));
+    }
+
+    @Operation(
+            summary = "Import users in bulk",
+            description = "Creates users from an application/x-ndjson upload (one registration request per line) " +
+                    "or a text/csv upload (header line, profile and settings fields flattened). Invalid or " +
+                    "duplicate rows are skipped and reported; confirmation mails are queued and sent separately",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import processed; see the rejected rows"),
+                    @ApiResponse(responseCode = "415", description = "Unsupported upload format")
+            }
+    )
+    @Secured("IMPORT_DATA")
+    @PostMapping(value = IMPORT, consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<UserImportResult> importUsers(HttpServletRequest request) throws IOException {
+        DataFormat format = DataFormat.fromContentType(request.getContentType())
+                .orElseThrow(() -> new BusinessException(ExceptionPayloadFactory.UNSUPPORTED_IMPORT_FORMAT.get()));
+        return ResponseEntity.ok(userImportService.importUsers(request.getInputStream(), format));
+    }
+
+    @Operation(
+            summary = "Export users by criteria",
+            description = "Streams every user matching the filtering criteria as NDJSON or CSV, " +
+                    "in creation order, without paging",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export streamed"),
+                    @ApiResponse(responseCode = "400", description = "Invalid input")
+            }
+    )
+    @Secured("EXPORT_DATA")
+    @GetMapping(EXPORT)
+    public void exportUsers(
+            UserCriteria criteria,
+            @RequestParam(defaultValue = "NDJSON") DataFormat format,
+            HttpServletResponse response) throws IOException {
+        prepareExport(response, format, "users");
+        dataExportService.exportUsers(criteria, format, response.getOutputStream());
+    }
+
+    @Operation(
+            summary = "Export transactions by merchant criteria",
+            description = "Streams every transaction whose merchant matches the user filtering criteria " +
+                    "as NDJSON or CSV, without paging",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export streamed"),
+                    @ApiResponse(responseCode = "400", description = "Invalid input")
+            }
+    )
+    @Secured("EXPORT_DATA")
+    @GetMapping(TRANSACTIONS + EXPORT)
+    public void exportTransactions(
+            UserCriteria criteria,
+            @RequestParam(defaultValue = "NDJSON") DataFormat format,
+            HttpServletResponse response) throws IOException {
+        prepareExport(response, format, "transactions");
+        dataExportService.exportTransactions(criteria, format, response.getOutputStream());
+    }
+
+    private void prepareExport(HttpServletResponse response, DataFormat format, String dataset) {
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + dataset + "."
+                + (format == DataFormat.CSV ? "csv" : "ndjson") + "\"");
     }
 }
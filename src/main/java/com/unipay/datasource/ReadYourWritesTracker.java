@@ -0,0 +1,72 @@
+package com.unipay.datasource;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers who has just written, so their reads are served by the primary and see their own changes.
+ *
+ * <p>After a read-write transaction commits, the authenticated user is pinned to the primary for
+ * {@code datasource.replica.sticky-ms}, and so is the rest of the current HTTP request, which covers
+ * anonymous writers such as a registration. The tolerance should be at least
+ * {@code datasource.replica.max-lag-ms}. Pins are held per node. Registered with the transaction manager
+ * as a {@link TransactionExecutionListener}.</p>
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private static final String REQUEST_ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".wrote";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(long stickyMs, long maximumSize) {
+        this.recentWriters = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(stickyMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()) {
+            return;
+        }
+        String writer = currentUser();
+        if (writer != null) {
+            recentWriters.put(writer, Boolean.TRUE);
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * @return whether the current request or user wrote recently enough that a replica may not have the change
+     */
+    public boolean isPinnedToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,69 @@
+package com.unipay.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Tracks how far the read replica is behind the primary.
+ *
+ * <p>Every {@code datasource.replica.lag-check-interval-ms} the replica reports the age of the last
+ * transaction it replayed. A replica that has replayed all WAL it received counts as zero lag, so an idle
+ * primary does not make it look stale. A server that is not in recovery, such as a second local database
+ * used for testing, also reports zero. While the lag exceeds {@code datasource.replica.max-lag-ms}, or the
+ * replica cannot be reached, {@link ReplicaRoutingDataSource} sends reads to the primary. Until the first
+ * successful check, the replica is not used. Publishes {@code datasource.replica.lag} in milliseconds
+ * (NaN while unreachable).</p>
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+    private volatile double lagMs = Double.NaN;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMs, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.maxLagMs = maxLagMs;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMs)
+                .description("Replication lag of the read replica in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_SQL, Double.class);
+            lagMs = lag == null ? 0 : lag;
+            usable = lagMs <= maxLagMs;
+        } catch (RuntimeException ex) {
+            lagMs = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Read replica unreachable, routing reads to the primary", ex);
+            }
+            return;
+        }
+        if (wasUsable != usable) {
+            log.info("Read replica {} (lag {} ms, tolerance {} ms)", usable ? "in use" : "bypassed",
+                    Math.round(lagMs), maxLagMs);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+}
@@ -0,0 +1,64 @@
+package com.unipay.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Chooses where a read-only transaction runs: the replica, or the primary when the replica lags beyond
+ * tolerance or the caller has just written.
+ *
+ * <p>Used as the read-only target of a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which only asks it for a connection when a transaction was marked read-only before its first
+ * statement, as {@code @Transactional(readOnly = true)} does. Publishes {@code datasource.reads}
+ * tagged with the chosen target and the reason for falling back.</p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker writesTracker;
+    private final Counter replicaReads;
+    private final Counter laggingReads;
+    private final Counter pinnedReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker writesTracker, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.writesTracker = writesTracker;
+        this.replicaReads = readCounter(meterRegistry, REPLICA, "none");
+        this.laggingReads = readCounter(meterRegistry, PRIMARY, "replica-lag");
+        this.pinnedReads = readCounter(meterRegistry, PRIMARY, "read-your-writes");
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!lagMonitor.isReplicaUsable()) {
+            laggingReads.increment();
+            return PRIMARY;
+        }
+        if (writesTracker.isPinnedToPrimary()) {
+            pinnedReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return REPLICA;
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.reads")
+                .description("Read-only transactions by the data source that served them")
+                .tag("target", target)
+                .tag("fallback", reason)
+                .register(meterRegistry);
+    }
+}
@@ -31,7 +31,6 @@ public class CurrentUser extends BaseEntityDto {
      * - Address or other user-identifiable metadata
      */
     private UserProfileDto profile;
-    private Set<AuditLogDto> auditLogs;
     private Set<LoginHistoryDto> loginHistories;
 
     /**
@@ -18,7 +18,6 @@ import java.util.Set;
  * - `profile`: A reference to the user's profile data (e.g., full name, date of birth).
  * - `settings`: A reference to the user's settings (e.g., language, timezone, email notifications).
  * - `loginHistories`: Historical records of the user's login attempts.
- * - `auditLogs`: Logs of actions performed by the user within the system for security and auditing.
  *
  * This class uses Lombok annotations to automatically generate getters, setters, and other boilerplate code.
  *
@@ -51,12 +50,6 @@ public class UserDto extends BaseEntityDto {
      */
     private Set<LoginHistoryDto> loginHistories;
 
-    /**
-     * Logs of actions performed by the user within the system, including administrative actions.
-     * This allows for tracking user activities for security and auditing purposes.
-     */
-    private Set<AuditLogDto> auditLogs;
-
     /**
      * The user's profile information. This includes details like the user's full name,
      * date of birth, and other personal information.
@@ -0,0 +1,13 @@
+package com.unipay.enums;
+
+/**
+ * What the audit pipeline does with an event when its queue is full.
+ */
+public enum AuditOverflowPolicy {
+    /** Wait up to {@code audit.pipeline.block-timeout-ms} for space, then drop. */
+    BLOCK,
+    /** Drop the event immediately and count it. */
+    DROP,
+    /** Append the event to a local spill file, replayed into the database on the next start. */
+    SPILL
+}
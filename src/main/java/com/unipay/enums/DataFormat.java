@@ -0,0 +1,37 @@
+package com.unipay.enums;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Wire formats of the bulk user import and the streaming exports.
+ */
+public enum DataFormat {
+    /** One JSON object per line; imported rows have the shape of the registration request body. */
+    NDJSON("application/x-ndjson"),
+    /** A header line followed by one record per line; nested fields are flattened into columns. */
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    DataFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static Optional<DataFormat> fromContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        String normalized = contentType.toLowerCase(Locale.ROOT);
+        for (DataFormat format : values()) {
+            if (normalized.startsWith(format.mediaType)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,8 @@
+package com.unipay.enums;
+
+/**
+ * Kind of mail an {@link com.unipay.models.EmailOutbox} entry stands for.
+ */
+public enum EmailOutboxType {
+    CONFIRMATION
+}
@@ -0,0 +1,11 @@
+package com.unipay.enums;
+
+/**
+ * Delivery state of an {@link com.unipay.models.EmailOutbox} entry.
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    /** Gave up after {@code email.outbox.max-attempts} attempts. */
+    FAILED
+}
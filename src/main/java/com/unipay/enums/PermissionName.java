@@ -2,6 +2,8 @@ package com.unipay.enums;
 
 /**
  * Enum to define various permissions within the system.
+ *
+ * <p>Append-only: ordinals are part of the token format ({@link com.unipay.payload.AuthoritySet}).</p>
  */
 public enum PermissionName {
 
@@ -67,7 +69,8 @@ public enum PermissionName {
     VIEW_PERMISSION("View Permission"),
     MANAGE_SETTINGS("Manage Settings"),
     ACCESS_API("Access API"),
-    VIEW_AUDIT_LOGS("View Audit Logs");
+    VIEW_AUDIT_LOGS("View Audit Logs"),
+    VIEW_METRICS("View Metrics");
 
     private final String description;
 
@@ -0,0 +1,9 @@
+package com.unipay.enums;
+
+/**
+ * Controls how the authentication filter builds the request principal once a JWT is verified.
+ */
+public enum PrincipalMode {
+    DATABASE,   // reload the user, roles and permissions on every request
+    CLAIMS      // build the principal from the verified token claims only
+}
@@ -1,5 +1,8 @@
 package com.unipay.enums;
 
+/**
+ * Append-only: ordinals are part of the token format ({@link com.unipay.payload.AuthoritySet}).
+ */
 public enum RoleName {
     USER, ADMIN, CLIENT
 }
\ No newline at end of file
@@ -36,7 +36,13 @@ public enum ExceptionPayloadFactory {
     BUSINESS_NOT_FOUND(18,HttpStatus.NOT_FOUND, "business.not.found"),
     BUSINESS_FOR_USER_NOT_FOUND(19,HttpStatus.NOT_FOUND, "business.for.user.not.found"),
     USER_PROFILE_NOT_FOUND(20, HttpStatus.NOT_FOUND, "user.profile.not.found"),
-    USER_NOT_AUTHENTICATED(21, HttpStatus.BAD_REQUEST, "user.not.authenticated");
+    USER_NOT_AUTHENTICATED(21, HttpStatus.BAD_REQUEST, "user.not.authenticated"),
+    PASSWORD_HASHING_BUSY(22, HttpStatus.SERVICE_UNAVAILABLE, "password.hashing.busy"),
+    TOO_MANY_LOGIN_ATTEMPTS(23, HttpStatus.TOO_MANY_REQUESTS, "too.many.login.attempts"),
+    INVALID_CURSOR(24, HttpStatus.BAD_REQUEST, "invalid.pagination.cursor"),
+    UNSUPPORTED_IMPORT_FORMAT(25, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "unsupported.import.format"),
+    IMPORT_READ_FAILED(26, HttpStatus.BAD_REQUEST, "import.read.failed"),
+    INVALID_FIELDS(27, HttpStatus.BAD_REQUEST, "invalid.fields");
 
     private final Integer code;
     private final HttpStatus status;
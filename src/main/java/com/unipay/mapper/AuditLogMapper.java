@@ -0,0 +1,12 @@
+package com.unipay.mapper;
+
+
+import com.unipay.dto.AuditLogDto;
+import com.unipay.models.AuditLog;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public abstract class AuditLogMapper {
+
+    public abstract AuditLogDto toDto(AuditLog auditLog);
+}
@@ -0,0 +1,12 @@
+package com.unipay.mapper;
+
+
+import com.unipay.dto.LoginHistoryDto;
+import com.unipay.models.LoginHistory;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public abstract class LoginHistoryMapper {
+
+    public abstract LoginHistoryDto toDto(LoginHistory loginHistory);
+}
@@ -1,6 +1,8 @@
 package com.unipay.models;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,12 +17,18 @@ import java.time.LocalDateTime;
  * detailed information about the action, and the timestamp when it occurred.
  * This entity is essential for tracking changes and ensuring accountability.
  *
+ * <p>Entries are append-only and are not mapped as a collection on {@link User}; read them through the
+ * paged queries on {@link com.unipay.repository.AuditLogRepository}, which are served by the
+ * {@code (user_id, timestamp, id)} index.</p>
+ *
  * @see User
  */
 @Setter
 @Entity
 @Getter
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_log_user_timestamp", columnList = "user_id, timestamp, id")
+})
 public class AuditLog extends BaseEntity {
 
     /**
@@ -28,7 +36,7 @@ public class AuditLog extends BaseEntity {
      * This is a many-to-one relationship with the `User` entity, as multiple actions
      * can be attributed to a single user.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -1,10 +1,14 @@
 package com.unipay.models;
 
+import com.unipay.models.id.GeneratedUuidV7;
+import com.unipay.models.id.UuidStringJavaType;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -18,7 +22,7 @@ import java.time.LocalDateTime;
  *
  * <p>Key Features:
  * <ul>
- *   <li><strong>id</strong>: Primary key identifier, auto-generated.</li>
+ *   <li><strong>id</strong>: Primary key identifier, a time-ordered UUIDv7 stored in a native uuid column.</li>
  *   <li><strong>createdAt</strong>: Timestamp marking when the entity was created.</li>
  *   <li><strong>updatedAt</strong>: Timestamp marking the last update to the entity.</li>
  *   <li><strong>version</strong>: Version number for optimistic locking to prevent concurrent update issues.</li>
@@ -50,12 +54,15 @@ import java.time.LocalDateTime;
 public abstract class BaseEntity {
 
     /**
-     * The unique identifier for this entity. This value is auto-generated using the UUID2 strategy.
+     * The unique identifier for this entity. This value is a time-ordered UUIDv7, so new rows are appended
+     * to the end of the primary key index rather than scattered across it, and it is stored as a 16-byte
+     * {@code uuid} column while remaining a {@code String} in Java.
      * This serves as the primary key for the entity.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
+    @JdbcTypeCode(SqlTypes.UUID)
     protected String id;
 
     /**
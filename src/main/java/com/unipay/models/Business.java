@@ -3,6 +3,7 @@ package com.unipay.models;
 import com.unipay.command.CreateBusinessCommand;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -12,7 +13,9 @@ import lombok.Setter;
 @Setter
 @Getter
 @Entity
-@Table(name = "BUSINESS")
+@Table(name = "BUSINESS", indexes = {
+        @Index(name = "idx_business_user_created", columnList = "user_id, createdAt, id")
+})
 public class Business extends BaseEntity{
 
     @Column(name = "LEGAL_NAME")
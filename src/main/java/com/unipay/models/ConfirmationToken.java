@@ -1,9 +1,13 @@
 package com.unipay.models;
 
 import com.unipay.constants.Constants;
+import com.unipay.models.id.GeneratedUuidV7;
+import com.unipay.models.id.UuidStringJavaType;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.security.SecureRandom;
 import java.util.Calendar;
@@ -20,8 +24,9 @@ import static com.unipay.constants.Constants.EXPIRATION_MINUTES;
 public class ConfirmationToken {
 
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
+    @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "ID")
     @EqualsAndHashCode.Include
     protected String id;
@@ -0,0 +1,57 @@
+package com.unipay.models;
+
+import com.unipay.enums.EmailOutboxType;
+import com.unipay.enums.OutboxStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A mail that still has to be sent, written in the same transaction as the change that calls for it.
+ *
+ * <p>Bulk imports insert one row per created user instead of sending mail inline; the
+ * {@link com.unipay.service.mail.EmailOutboxDispatcher} drains pending rows in small batches, so mail
+ * volume is throttled independently of the import and a failed send is retried rather than lost.</p>
+ *
+ * <p>Key Features:
+ * <ul>
+ *   <li><strong>user</strong>: The recipient.</li>
+ *   <li><strong>type</strong>: Which mail to send.</li>
+ *   <li><strong>status</strong>: Pending, sent, or failed after the maximum number of attempts.</li>
+ *   <li><strong>attempts</strong> and <strong>nextAttemptAt</strong>: Retry bookkeeping.</li>
+ *   <li><strong>lastError</strong>: The message of the last failed attempt.</li>
+ * </ul>
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_pending", columnList = "status, nextAttemptAt")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class EmailOutbox extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    private EmailOutboxType type;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    private Instant nextAttemptAt;
+
+    private String lastError;
+}
@@ -1,6 +1,7 @@
 package com.unipay.models;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -40,7 +41,9 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "login_history")
+@Table(name = "login_history", indexes = {
+        @Index(name = "idx_login_history_user_timestamp", columnList = "user_id, loginTimestamp, id")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class LoginHistory extends BaseEntity {
@@ -1,11 +1,14 @@
 package com.unipay.models;
 
+import com.unipay.constants.CacheRegions;
 import com.unipay.enums.PermissionName;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -24,8 +27,12 @@ import java.util.Set;
  *
  * <p>Permissions control access to specific actions or resources within the system,
  * ensuring that users with the appropriate roles can perform actions based on their granted permissions.
+ *
+ * <p>Permissions are reference data and are kept in the second-level cache.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PERMISSION)
 @Table(name = "permissions")
 @Getter
 @Setter
@@ -1,11 +1,14 @@
 package com.unipay.models;
 
+import com.unipay.constants.CacheRegions;
 import com.unipay.enums.RoleName;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -24,8 +27,12 @@ import java.util.Set;
  *
  * <p>Roles allow the system to assign specific rights and duties to users based on their role within the organization.
  * For example, an "ADMIN" role might have the permission to manage user accounts, whereas a "USER" role may only have access to personal information.
+ *
+ * <p>Roles and their permission sets change rarely, so both are kept in the second-level cache.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROLE)
 @Table(name = "roles")
 @Getter
 @Setter
@@ -56,6 +63,7 @@ public class Role extends BaseEntity {
      * This is a many-to-many relationship with the {@link Permission} entity.
      */
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROLE_PERMISSIONS)
     @JoinTable(
             name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
@@ -4,15 +4,17 @@ import com.unipay.command.UserRegisterCommand;
 import com.unipay.enums.PermissionName;
 import com.unipay.enums.RoleName;
 import com.unipay.enums.UserStatus;
+import com.unipay.payload.AuthoritySet;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Represents a user account within the system, encompassing authentication credentials,
- * profile information, roles, login history, settings, security questions, and audit logs.
+ * profile information, roles, login history, settings and security questions.
  *
  * <p>Key Fields:
  * <ul>
@@ -25,16 +27,21 @@ import java.util.Set;
  *   <li><strong>loginHistories</strong>: Records of the user's login attempts.</li>
  *   <li><strong>settings</strong>: User-specific settings and preferences.</li>
  *   <li><strong>securityQuestions</strong>: Security questions for account recovery.</li>
- *   <li><strong>auditLogs</strong>: Logs of actions performed by the user within the system.</li>
  * </ul>
  *
  * <p>This class serves as the central entity for user management, containing all relevant details
  * about the user’s account, authentication, and associated information. It supports user registration,
  * login history tracking, and role management, among other features.
+ *
+ * <p>Audit logs are deliberately not mapped here: they are an append-only store reachable only
+ * through paged {@link com.unipay.repository.AuditLogRepository} queries, so loading a user costs
+ * the same however much activity it has recorded.
  */
 @Builder
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_user_created", columnList = "createdAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -90,6 +97,7 @@ public class User extends BaseEntity {
     /**
      * Records of the user's login attempts.
      * This is useful for auditing and tracking user login patterns for security purposes.
+     * New entries are appended by the login history writer, never through this collection.
      */
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private Set<LoginHistory> loginHistories = new HashSet<>();
@@ -108,13 +116,6 @@ public class User extends BaseEntity {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private Set<SecurityQuestion> securityQuestions = new HashSet<>();
 
-    /**
-     * Logs of actions performed by the user within the system, including administrative actions.
-     * This allows for tracking user activities for security and auditing purposes.
-     */
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-    private Set<AuditLog> auditLogs = new HashSet<>();
-
     @OneToOne(
             mappedBy = "user",
             cascade = CascadeType.ALL,
@@ -146,6 +147,15 @@ public class User extends BaseEntity {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Webhook> webhooks = new HashSet<>();
 
+    /**
+     * Bitmask of the user's roles and permissions, derived lazily from {@link #userRoles}.
+     * Reset by {@link #addUserRole(UserRole)}.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private AuthoritySet authoritySet;
+
     /**
      * Creates a new {@link User} instance from the provided {@link UserRegisterCommand}.
      *
@@ -161,47 +171,51 @@ public class User extends BaseEntity {
         return user;
     }
     /**
-     * Adds a login history record to the user's login history.
-     * This method links the provided {@link LoginHistory} to the user.
-     * It also ensures that the login history is correctly associated with the user.
+     * Assigns a role to the user, keeping the cached {@link AuthoritySet} consistent.
      *
-     * @param loginHistory The {@link LoginHistory} object to be linked with the user.
+     * @param userRole The {@link UserRole} linking this user to a role.
      */
-    public void addLoginHistory(LoginHistory loginHistory) {
-        if (this.loginHistories == null) {
-            this.loginHistories = new HashSet<>();
+    public void addUserRole(UserRole userRole) {
+        if (this.userRoles == null) {
+            this.userRoles = new HashSet<>();
         }
-        this.loginHistories.add(loginHistory);
-        loginHistory.setUser(this);
+        this.userRoles.add(userRole);
+        userRole.setUser(this);
+        this.authoritySet = null;
     }
+
     /**
-     * Adds an AuditLog entry to the user's audit log history.
-     * This method ensures that the audit log is properly associated with the user and the collection is not null.
-     *
-     * @param auditLog The {@link AuditLog} object to be added to the user's audit logs.
+     * Returns the user's roles and permissions as a bitmask, computed once from the role graph.
      */
-    public void addAuditLog(AuditLog auditLog) {
-        if (this.auditLogs == null) {
-            this.auditLogs = new HashSet<>();
+    public AuthoritySet getAuthoritySet() {
+        if (authoritySet == null) {
+            Set<RoleName> roles = EnumSet.noneOf(RoleName.class);
+            Set<PermissionName> permissions = EnumSet.noneOf(PermissionName.class);
+            if (userRoles != null) {
+                userRoles.forEach(userRole -> {
+                    roles.add(userRole.getRole().getName());
+                    if (userRole.getRole().getPermissions() != null) {
+                        userRole.getRole().getPermissions().forEach(p -> permissions.add(p.getName()));
+                    }
+                });
+            }
+            authoritySet = AuthoritySet.of(roles, permissions);
         }
-        this.auditLogs.add(auditLog);
-        auditLog.setUser(this);
+        return authoritySet;
     }
+
     /**
      *** Checks if the user has a specific role
     */
     public boolean hasRole(RoleName roleName) {
-        return userRoles.stream()
-                .anyMatch(ur -> ur.getRole().getName() == roleName);
+        return getAuthoritySet().hasRole(roleName);
     }
 
     /**
      * Checks if the user has a specific permission
      */
     public boolean hasPermission(PermissionName permissionName) {
-        return userRoles.stream()
-                .flatMap(ur -> ur.getRole().getPermissions().stream())
-                .anyMatch(p -> p.getName() == permissionName);
+        return getAuthoritySet().hasPermission(permissionName);
     }
 
     /**
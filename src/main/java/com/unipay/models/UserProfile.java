@@ -11,6 +11,7 @@ import lombok.Setter;
 
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -109,7 +110,7 @@ public class UserProfile extends BaseEntity {
         userProfile.fullName = command.getFullName();
         userProfile.dateOfBirth = command.getDateOfBirth();
         userProfile.phoneNumber = command.getPhoneNumber();
-        userProfile.gender = UserGender.valueOf(command.getGender());
+        userProfile.gender = UserGender.valueOf(command.getGender().toUpperCase(Locale.ROOT));
         userProfile.nationality = command.getNationality();
 
         return userProfile;
@@ -16,7 +16,8 @@ import java.time.Instant;
 @AllArgsConstructor
 @Table(name = "user_sessions", indexes = {
         @Index(name = "idx_session_expiry", columnList = "expiresAt"),
-        @Index(name = "idx_session_revoked", columnList = "revoked")
+        @Index(name = "idx_session_revoked", columnList = "revoked"),
+        @Index(name = "idx_session_user_device", columnList = "user_id, deviceId, revoked, expiresAt")
 })
 public class UserSession extends BaseEntity{
 
@@ -0,0 +1,99 @@
+package com.unipay.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the SQL executed by each HTTP request and flags requests over budget.
+ *
+ * <p>Opens a {@link SqlStatementStats} scope around the whole filter chain, including authentication,
+ * and then publishes {@code sql.request.statements}, {@code sql.request.rows} and {@code sql.request.time},
+ * tagged with the HTTP method and the matched URI pattern. A request that executes more than
+ * {@code sql-metrics.budget.max-statements} statements or reads more than
+ * {@code sql-metrics.budget.max-rows} rows is logged with its most frequent statement fingerprints and
+ * counted in {@code sql.request.budget.exceeded}. Enabled with {@code sql-metrics.enabled=true}.</p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "sql-metrics.enabled", havingValue = "true")
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final int LOGGED_FINGERPRINTS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final long maxRows;
+
+    public SqlStatementBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql-metrics.budget.max-statements:30}") int maxStatements,
+            @Value("${sql-metrics.budget.max-rows:10000}") long maxRows
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.close();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNMAPPED" : pattern.toString();
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder("sql.request.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .description("Result rows read per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("sql.request.time")
+                .description("Time spent executing JDBC statements per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > maxStatements || stats.getRows() > maxRows) {
+            Counter.builder("sql.request.budget.exceeded")
+                    .description("HTTP requests over the SQL statement or row budget")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("SQL budget exceeded by {} {}: {} statements (budget {}), {} rows (budget {}), {} ms; top statements:\n{}",
+                    request.getMethod(), uri, stats.getStatements(), maxStatements, stats.getRows(), maxRows,
+                    stats.getTime(TimeUnit.MILLISECONDS), stats.describeTop(LOGGED_FINGERPRINTS));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.unipay.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds {@code X-SQL-Statements}, {@code X-SQL-Rows} and {@code X-SQL-Time-Ms} to response bodies.
+ *
+ * <p>The headers are written just before the body is serialized, so they cover everything up to that
+ * point but not lazy loads triggered during serialization; the metrics of {@link SqlStatementBudgetFilter}
+ * cover the complete request. Responses streamed directly to the servlet output get no headers. Enabled
+ * with {@code sql-metrics.response-headers=true}, and never under the {@code prod} profile.</p>
+ */
+@Profile("!prod")
+@RestControllerAdvice
+@ConditionalOnProperty(name = {"sql-metrics.enabled", "sql-metrics.response-headers"}, havingValue = "true")
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            response.getHeaders().set("X-SQL-Statements", String.valueOf(stats.getStatements()));
+            response.getHeaders().set("X-SQL-Rows", String.valueOf(stats.getRows()));
+            response.getHeaders().set("X-SQL-Time-Ms", String.valueOf(stats.getTime(TimeUnit.MILLISECONDS)));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,139 @@
+package com.unipay.monitoring;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC statements, rows read and execution time recorded on the current thread.
+ *
+ * <p>{@link StatementCountingDataSource} reports into the innermost scope opened on the calling thread;
+ * without an open scope nothing is recorded. {@link SqlStatementBudgetFilter} opens one scope per HTTP
+ * request. A closed scope adds its counts to the scope it was nested in, so a measurement inside a
+ * request still counts towards that request.</p>
+ *
+ * <p>Each statement is also counted under a fingerprint: its SQL with literals replaced by {@code ?} and
+ * whitespace collapsed. An N+1 pattern shows up as one fingerprint with a high count.</p>
+ */
+public final class SqlStatementStats implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+    private static final int MAX_FINGERPRINTS = 100;
+    private static final int MAX_FINGERPRINT_LENGTH = 300;
+    private static final String OTHER = "<other statements>";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SqlStatementStats parent;
+    private final Map<String, Integer> fingerprints = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long nanos;
+    private boolean closed;
+
+    private SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Starts recording on the current thread until the returned scope is closed.
+     */
+    public static SqlStatementStats open() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return the innermost open scope of the current thread, or null
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code work} and returns what it executed.
+     */
+    public static SqlStatementStats measure(Runnable work) {
+        try (SqlStatementStats stats = open()) {
+            work.run();
+            return stats;
+        }
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        String fingerprint = fingerprint(sql);
+        if (fingerprints.size() >= MAX_FINGERPRINTS && !fingerprints.containsKey(fingerprint)) {
+            fingerprint = OTHER;
+        }
+        fingerprints.merge(fingerprint, 1, Integer::sum);
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getTime(TimeUnit unit) {
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return up to {@code limit} fingerprints, most executed first, one {@code count x sql} per line
+     */
+    public String describeTop(int limit) {
+        return fingerprints.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> "  " + entry.getValue() + " x " + entry.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (CURRENT.get() == this) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+        if (parent != null) {
+            parent.statements += statements;
+            parent.rows += rows;
+            parent.nanos += nanos;
+            fingerprints.forEach((fingerprint, count) -> parent.fingerprints.merge(fingerprint, count, Integer::sum));
+        }
+    }
+
+    static String fingerprint(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?...)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+        return normalized.length() > MAX_FINGERPRINT_LENGTH
+                ? normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "..."
+                : normalized;
+    }
+}
@@ -0,0 +1,17 @@
+package com.unipay.payload;
+
+import com.unipay.enums.UserStatus;
+
+/**
+ * One row of the {@code User LEFT JOIN userRoles} scalar query behind {@link AuthUserView};
+ * a user with several roles yields several rows, folded by {@link AuthUserView#fromRows}.
+ */
+public record AuthUserRow(
+        String id,
+        String email,
+        String username,
+        String passwordHash,
+        UserStatus status,
+        String roleId
+) {
+}
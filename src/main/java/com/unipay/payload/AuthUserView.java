@@ -0,0 +1,41 @@
+package com.unipay.payload;
+
+import com.unipay.enums.UserStatus;
+
+import java.util.List;
+
+/**
+ * Read-only projection of the user fields the authentication path needs.
+ *
+ * <p>Loaded with a scalar query, so no {@code User} entity, lazy collection or dirty-checking
+ * snapshot is created, whatever the user's profile, settings, sessions or businesses look like.</p>
+ *
+ * @param id           the user ID
+ * @param email        the login email (the principal's username)
+ * @param username     the display username
+ * @param passwordHash the stored password hash
+ * @param status       the account status
+ * @param roleIds      IDs of the assigned roles, resolved to authorities by the role permission registry
+ */
+public record AuthUserView(
+        String id,
+        String email,
+        String username,
+        String passwordHash,
+        UserStatus status,
+        List<String> roleIds
+) {
+
+    /**
+     * Folds the rows of a single user into one view.
+     */
+    public static AuthUserView fromRows(List<AuthUserRow> rows) {
+        AuthUserRow first = rows.get(0);
+        List<String> roleIds = rows.stream()
+                .map(AuthUserRow::roleId)
+                .filter(roleId -> roleId != null)
+                .distinct()
+                .toList();
+        return new AuthUserView(first.id(), first.email(), first.username(), first.passwordHash(), first.status(), roleIds);
+    }
+}
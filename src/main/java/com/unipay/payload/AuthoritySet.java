@@ -0,0 +1,184 @@
+package com.unipay.payload;
+
+import com.unipay.enums.PermissionName;
+import com.unipay.enums.RoleName;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable bitmask of a user's {@link RoleName roles} and {@link PermissionName permissions}.
+ *
+ * <p>Each enum constant maps to the bit at its ordinal, so {@link #hasRole} and {@link #hasPermission}
+ * are single bit tests. {@link #encode()} packs the set into a short base64url string that is carried
+ * as the {@code authz} JWT claim in place of a list of authority names.</p>
+ *
+ * <p>Because bits are positional, new {@code RoleName} and {@code PermissionName} constants must be
+ * appended, never inserted or reordered, or tokens issued before the change will decode incorrectly.</p>
+ */
+public final class AuthoritySet {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final PermissionName[] PERMISSIONS = PermissionName.values();
+    private static final RoleName[] ROLES = RoleName.values();
+
+    public static final AuthoritySet EMPTY = new AuthoritySet(new BitSet(), new BitSet());
+
+    private final BitSet roleBits;
+    private final BitSet permissionBits;
+    private volatile Set<GrantedAuthority> grantedAuthorities;
+
+    private AuthoritySet(BitSet roleBits, BitSet permissionBits) {
+        this.roleBits = roleBits;
+        this.permissionBits = permissionBits;
+    }
+
+    public static AuthoritySet of(Collection<RoleName> roles, Collection<PermissionName> permissions) {
+        BitSet roleBits = new BitSet(ROLES.length);
+        roles.forEach(role -> roleBits.set(role.ordinal()));
+        BitSet permissionBits = new BitSet(PERMISSIONS.length);
+        permissions.forEach(permission -> permissionBits.set(permission.ordinal()));
+        return new AuthoritySet(roleBits, permissionBits);
+    }
+
+    /**
+     * Parses Spring Security authority names ({@code ROLE_*} and permission names); unknown names are ignored.
+     */
+    public static AuthoritySet fromAuthorityNames(Collection<String> names) {
+        Set<RoleName> roles = EnumSet.noneOf(RoleName.class);
+        Set<PermissionName> permissions = EnumSet.noneOf(PermissionName.class);
+        for (String name : names) {
+            try {
+                if (name.startsWith(ROLE_PREFIX)) {
+                    roles.add(RoleName.valueOf(name.substring(ROLE_PREFIX.length())));
+                } else {
+                    permissions.add(PermissionName.valueOf(name));
+                }
+            } catch (IllegalArgumentException ignored) {
+                // authority no longer defined; drop it
+            }
+        }
+        return of(roles, permissions);
+    }
+
+    /**
+     * @return a set holding every role and permission of this set and the other one
+     */
+    public AuthoritySet union(AuthoritySet other) {
+        if (other == this || other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        BitSet roles = (BitSet) roleBits.clone();
+        roles.or(other.roleBits);
+        BitSet permissions = (BitSet) permissionBits.clone();
+        permissions.or(other.permissionBits);
+        return new AuthoritySet(roles, permissions);
+    }
+
+    public boolean isEmpty() {
+        return roleBits.isEmpty() && permissionBits.isEmpty();
+    }
+
+    public boolean hasRole(RoleName role) {
+        return roleBits.get(role.ordinal());
+    }
+
+    public boolean hasPermission(PermissionName permission) {
+        return permissionBits.get(permission.ordinal());
+    }
+
+    public Set<RoleName> roles() {
+        Set<RoleName> roles = EnumSet.noneOf(RoleName.class);
+        roleBits.stream().filter(i -> i < ROLES.length).forEach(i -> roles.add(ROLES[i]));
+        return roles;
+    }
+
+    public Set<PermissionName> permissions() {
+        Set<PermissionName> permissions = EnumSet.noneOf(PermissionName.class);
+        permissionBits.stream().filter(i -> i < PERMISSIONS.length).forEach(i -> permissions.add(PERMISSIONS[i]));
+        return permissions;
+    }
+
+    /**
+     * @return the permission names followed by {@code ROLE_}-prefixed role names, as used by Spring Security
+     */
+    public List<String> toAuthorityNames() {
+        List<String> names = new ArrayList<>();
+        permissions().forEach(permission -> names.add(permission.name()));
+        roles().forEach(role -> names.add(ROLE_PREFIX + role.name()));
+        return names;
+    }
+
+    public Set<GrantedAuthority> toGrantedAuthorities() {
+        Set<GrantedAuthority> authorities = grantedAuthorities;
+        if (authorities == null) {
+            Set<GrantedAuthority> built = new LinkedHashSet<>();
+            toAuthorityNames().forEach(name -> built.add(new SimpleGrantedAuthority(name)));
+            authorities = Collections.unmodifiableSet(built);
+            grantedAuthorities = authorities;
+        }
+        return authorities;
+    }
+
+    /**
+     * Encodes as base64url: format version, role byte count, role bits, then permission bits.
+     */
+    public String encode() {
+        byte[] roles = roleBits.toByteArray();
+        byte[] permissions = permissionBits.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(2 + roles.length + permissions.length)
+                .put(FORMAT_VERSION)
+                .put((byte) roles.length)
+                .put(roles)
+                .put(permissions);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a valid encoding
+     */
+    public static AuthoritySet decode(String encoded) {
+        byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+        if (bytes.length < 2 || bytes[0] != FORMAT_VERSION || bytes[1] < 0 || bytes[1] > bytes.length - 2) {
+            throw new IllegalArgumentException("Unsupported authority encoding");
+        }
+        int roleLength = bytes[1];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        byte[] roles = new byte[roleLength];
+        buffer.get(roles);
+        byte[] permissions = new byte[buffer.remaining()];
+        buffer.get(permissions);
+        return new AuthoritySet(BitSet.valueOf(roles), BitSet.valueOf(permissions));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuthoritySet other)) return false;
+        return roleBits.equals(other.roleBits) && permissionBits.equals(other.permissionBits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * roleBits.hashCode() + permissionBits.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthoritySet" + toAuthorityNames();
+    }
+}
@@ -1,52 +1,107 @@
 package com.unipay.payload;
 
 
+import com.unipay.enums.PermissionName;
+import com.unipay.enums.RoleName;
 import com.unipay.enums.UserStatus;
 import com.unipay.models.User;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 
+/**
+ * Spring Security principal for UniPay users.
+ *
+ * <p>A principal is backed by a loaded {@link User} entity ({@link #create(User)}), by the lean
+ * {@link AuthUserView} projection used on the authentication path ({@link #fromView}), or built
+ * straight from verified JWT claims ({@link #fromClaims(VerifiedClaims)}). Only entity-backed
+ * principals carry a {@link User}; claims-backed ones also carry no user ID and no password. Callers
+ * needing the full user go through {@code AuthenticationService.getCurrentUser()}, which loads it on
+ * demand.</p>
+ */
 @Getter
 @Setter
 public class UserDetailsImpl implements UserDetails {
 
     private final User user;
-    private final Collection<? extends GrantedAuthority> authorities;
+    private final String userId;
+    private final String username;
+    private final String password;
+    private final UserStatus status;
+    private final AuthoritySet authoritySet;
+
+    public UserDetailsImpl(User user, AuthoritySet authoritySet) {
+        this(user, user.getId(), user.getEmail(), user.getPasswordHash(), user.getStatus(), authoritySet);
+    }
 
-    public UserDetailsImpl(User user, Collection<? extends GrantedAuthority> authorities) {
+    private UserDetailsImpl(User user, String userId, String username, String password, UserStatus status,
+                            AuthoritySet authoritySet) {
         this.user = user;
-        this.authorities = authorities;
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+        this.status = status;
+        this.authoritySet = authoritySet;
     }
 
     public static UserDetailsImpl create(User user) {
-        Set<GrantedAuthority> authorities = user.getUserRoles().stream()
-                .flatMap(role -> role.getRole().getPermissions().stream())
-                .map(permission -> new SimpleGrantedAuthority(permission.getName().name()))
-                .collect(Collectors.toSet());
+        return new UserDetailsImpl(user, user.getAuthoritySet());
+    }
+
+    /**
+     * Builds a principal for a loaded user whose authorities were already resolved,
+     * e.g. from the role IDs through the role permission registry.
+     */
+    public static UserDetailsImpl create(User user, AuthoritySet authoritySet) {
+        return new UserDetailsImpl(user, authoritySet);
+    }
 
-        user.getUserRoles().forEach(role ->
-                authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getRole().getName().name()))
-        );
+    /**
+     * Builds a lightweight principal from already verified token claims, without touching the database.
+     */
+    public static UserDetailsImpl fromClaims(VerifiedClaims claims) {
+        return new UserDetailsImpl(null, null, claims.subject(), null, claims.userStatus(), claims.authorities());
+    }
 
-        return new UserDetailsImpl(user, authorities);
+    /**
+     * Builds a principal from the authentication projection, without a managed {@link User} entity.
+     */
+    public static UserDetailsImpl fromView(AuthUserView view, AuthoritySet authoritySet) {
+        return new UserDetailsImpl(null, view.id(), view.email(), view.passwordHash(), view.status(), authoritySet);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authoritySet.toGrantedAuthorities();
+    }
+
+    public boolean hasRole(RoleName roleName) {
+        return authoritySet.hasRole(roleName);
+    }
+
+    public boolean hasPermission(PermissionName permissionName) {
+        return authoritySet.hasPermission(permissionName);
+    }
+
+    /**
+     * @return true if this principal was built from a loaded {@link User} entity
+     */
+    public boolean hasUser() {
+        return user != null;
     }
 
     @Override
     public String getPassword() {
-        return user.getPasswordHash();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return username;
     }
 
     @Override
@@ -66,7 +121,6 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getStatus() == UserStatus.ACTIVE;
+        return status == UserStatus.ACTIVE;
     }
 }
-
@@ -0,0 +1,36 @@
+package com.unipay.payload;
+
+import com.unipay.enums.UserStatus;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a JWT whose signature, expiry and status claims have already been verified.
+ *
+ * <p>Produced once per token by {@link com.unipay.utils.JwtService#verify(String)} so that the
+ * authentication filter can read every claim it needs without parsing the token again.</p>
+ *
+ * @param subject     the user's email (JWT {@code sub})
+ * @param sessionId   the {@code sessionId} claim linking the token to a {@code UserSession}
+ * @param authorities the roles and permissions decoded from the {@code authz} claim
+ * @param userStatus  the {@code userStatus} claim captured at issuance
+ * @param issuedAt    the JWT {@code iat}
+ * @param expiresAt   the JWT {@code exp}
+ */
+public record VerifiedClaims(
+        String subject,
+        String sessionId,
+        AuthoritySet authorities,
+        UserStatus userStatus,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public VerifiedClaims {
+        authorities = authorities == null ? AuthoritySet.EMPTY : authorities;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
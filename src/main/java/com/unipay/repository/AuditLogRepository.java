@@ -1,8 +1,11 @@
 package com.unipay.repository;
 
 import com.unipay.models.AuditLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,4 +16,6 @@ import java.util.Optional;
 public interface AuditLogRepository extends JpaRepository<AuditLog, String> {
     Optional<AuditLog> findByIdOrAction(String id, String action);
     Page<AuditLog> getAuditLogsByUser_Id(Pageable pageable, String userId);
+    Window<AuditLog> findByUser_IdOrderByTimestampDescIdDesc(String userId, ScrollPosition position, Limit limit);
+    long countByUser_Id(String userId);
 }
@@ -1,8 +1,11 @@
 package com.unipay.repository;
 
 import com.unipay.models.LoginHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +13,6 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface LoginHistoryRepository extends JpaRepository<LoginHistory, String> {
     Page<LoginHistory> getLoginHistoriesByUser_Id(Pageable pageable, String userId);
+    Window<LoginHistory> findByUser_IdOrderByLoginTimestampDescIdDesc(String userId, ScrollPosition position, Limit limit);
+    long countByUser_Id(String userId);
 }
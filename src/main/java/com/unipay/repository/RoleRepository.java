@@ -1,8 +1,12 @@
 package com.unipay.repository;
 
+import com.unipay.constants.CacheRegions;
 import com.unipay.enums.RoleName;
 import com.unipay.models.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +14,14 @@ import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, String> {
+
+    /**
+     * Served from the {@link CacheRegions#REFERENCE_QUERIES} query cache, and the role itself from
+     * the second-level cache, so a steady-state lookup does not reach the database.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     Optional<Role> findByName(RoleName roleName);
 }
@@ -1,15 +1,17 @@
 package com.unipay.repository;
 
-import com.unipay.criteria.UserCriteria;
 import com.unipay.models.User;
-import com.unipay.utils.UserSpecification;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.unipay.payload.AuthUserRow;
+import com.unipay.payload.AuthUserView;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,19 +21,29 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, String>, JpaSpecificationExecutor<User> {
 
-    /**
-     * Filters users based on the provided criteria and pagination.
-     */
-    default Page<User> getUsersByCriteria(Pageable pageable, UserCriteria criteria) {
-        return findAll(new UserSpecification(criteria), pageable);
-    }
     /**
      * Checks if a user exists by either email or username.
      */
     boolean existsByEmailOrUsername(String email, String userName);
     Optional<User> findByUsername(String username);
-    @EntityGraph(attributePaths = {"userRoles.role.permissions"})
+    @EntityGraph(attributePaths = {"userRoles.role"})
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
+
+    @Query("SELECT new com.unipay.payload.AuthUserRow(u.id, u.email, u.username, u.passwordHash, u.status, ur.role.id) " +
+            "FROM User u LEFT JOIN u.userRoles ur WHERE u.email = :email")
+    List<AuthUserRow> findAuthRowsByEmail(@Param("email") String email);
+
+    /**
+     * Loads the {@link AuthUserView} for an email without materializing a {@link User} entity.
+     */
+    default Optional<AuthUserView> findAuthViewByEmail(String email) {
+        List<AuthUserRow> rows = findAuthRowsByEmail(email);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(AuthUserView.fromRows(rows));
+    }
+
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.email = :email")
+    int updatePasswordHash(@Param("email") String email, @Param("passwordHash") String passwordHash);
     boolean existsByEmail(String email);
 }
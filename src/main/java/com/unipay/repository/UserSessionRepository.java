@@ -2,6 +2,7 @@ package com.unipay.repository;
 
 import com.unipay.models.User;
 import com.unipay.models.UserSession;
+import com.unipay.service.session.SessionValidity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -36,5 +37,9 @@ public interface UserSessionRepository extends JpaRepository<UserSession, String
     boolean existsByUserAndDeviceIdAndRevokedFalseAndExpiresAtAfter(User user, String deviceId, Instant now);
     Optional<UserSession> findFirstByUserAndDeviceIdAndRevokedFalseAndExpiresAtAfter(
             User user, String deviceId, Instant now
-    );;
+    );
+
+    @Query("SELECT new com.unipay.service.session.SessionValidity(s.id, s.user.id, s.revoked, s.expiresAt) " +
+            "FROM UserSession s WHERE s.id = :sessionId")
+    Optional<SessionValidity> findValidityById(@Param("sessionId") String sessionId);
 }
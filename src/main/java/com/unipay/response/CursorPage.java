@@ -0,0 +1,18 @@
+package com.unipay.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset-paginated listing.
+ *
+ * @param content       the items in this slice
+ * @param nextCursor    opaque token for the following slice, or null when this is the last one
+ * @param totalElements total matching items, present only when the caller asked for a count
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, Long totalElements) {
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor, totalElements);
+    }
+}
@@ -0,0 +1,11 @@
+package com.unipay.response;
+
+/**
+ * A row the bulk import rejected.
+ *
+ * @param line   1-based line number in the uploaded file
+ * @param email  the row's email, when it could be read
+ * @param reason why the row was rejected
+ */
+public record UserImportError(long line, String email, String reason) {
+}
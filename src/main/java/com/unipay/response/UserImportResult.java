@@ -0,0 +1,16 @@
+package com.unipay.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import.
+ *
+ * @param received        data rows read from the upload
+ * @param imported        users created
+ * @param rejected        rows rejected, whether or not they are listed in {@code errors}
+ * @param errors          the first {@code user-import.max-reported-errors} rejected rows
+ * @param errorsTruncated true when more rows were rejected than are listed
+ */
+public record UserImportResult(long received, long imported, long rejected, List<UserImportError> errors,
+                               boolean errorsTruncated) {
+}
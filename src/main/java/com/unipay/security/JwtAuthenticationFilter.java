@@ -1,6 +1,9 @@
 package com.unipay.security;
 
-import com.unipay.models.UserSession;
+import com.unipay.enums.PrincipalMode;
+import com.unipay.payload.UserDetailsImpl;
+import com.unipay.payload.VerifiedClaims;
+import com.unipay.service.session.SessionValidity;
 import com.unipay.service.session.UserSessionService;
 import com.unipay.utils.JwtService;
 import jakarta.servlet.FilterChain;
@@ -9,6 +12,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -28,6 +32,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final UserSessionService userSessionService;
     private final UserDetailsServiceImpl userDetailsService;
 
+    /**
+     * DATABASE reloads the user on every request; CLAIMS trusts the verified token and defers
+     * loading the user until {@code AuthenticationService.getCurrentUser()} is called.
+     */
+    @Value("${jwt.principal-mode:DATABASE}")
+    private PrincipalMode principalMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -39,25 +50,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             try {
                 log.debug("Processing JWT: {}...", jwt.substring(0, Math.min(jwt.length(), 10)));
 
-                // 1. Validate signature, expiry, and userStatus
-                if (!jwtService.validateToken(jwt)) {
+                // 1. Validate signature, expiry, and userStatus (once per token, cached)
+                VerifiedClaims claims = jwtService.verify(jwt).orElse(null);
+                if (claims == null) {
                     log.warn("JWT failed validation");
                     reject(response, "Invalid or expired token");
                     return;
                 }
 
                 // 2. Verify session
-                String sessionId = jwtService.getSessionIdFromToken(jwt);
-                UserSession session = userSessionService.validateAndRefreshSession(sessionId);
+                String sessionId = claims.sessionId();
+                SessionValidity session = userSessionService.validateAndRefreshSession(sessionId);
                 if (session == null) {
                     log.warn("Session {} invalid or expired", sessionId);
                     reject(response, "Session expired or revoked");
                     return;
                 }
 
-                // 3. Load UserDetailsImpl and set Authentication
-                String username = jwtService.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // 3. Build UserDetailsImpl and set Authentication
+                String username = claims.subject();
+                UserDetails userDetails = principalMode == PrincipalMode.CLAIMS
+                        ? UserDetailsImpl.fromClaims(claims)
+                        : userDetailsService.loadUserByUsername(username);
 
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,75 @@
+package com.unipay.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.unipay.payload.VerifiedClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already-verified JWTs.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the raw token so the bearer string itself is never
+ * retained. An entry lives at most {@code jwt.cache.expire-after-ms} and is never served past the
+ * token's own {@code exp}, so a cache hit can skip HS512 verification without extending a token's
+ * lifetime. Hit, miss and eviction counts are published under the {@code jwt.verification} cache
+ * metrics.</p>
+ */
+@Slf4j
+@Component
+public class JwtVerificationCache {
+
+    private final Cache<HashCode, VerifiedClaims> cache;
+
+    public JwtVerificationCache(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${jwt.cache.expire-after-ms:300000}") long expireAfterMs
+    ) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterMs, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "jwt.verification");
+    }
+
+    /**
+     * Returns the cached claims for the token, or empty if the token was never verified,
+     * has been evicted, or has expired since it was cached.
+     */
+    public Optional<VerifiedClaims> get(String token) {
+        HashCode key = digest(token);
+        VerifiedClaims claims = cache.getIfPresent(key);
+        if (claims == null) {
+            return Optional.empty();
+        }
+        if (claims.isExpired(Instant.now())) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    public void put(String token, VerifiedClaims claims) {
+        cache.put(digest(token), claims);
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    private HashCode digest(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+    }
+}
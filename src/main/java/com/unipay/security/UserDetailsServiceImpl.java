@@ -1,28 +1,55 @@
 package com.unipay.security;
 
-import com.unipay.models.User;
+import com.unipay.payload.AuthUserView;
 import com.unipay.payload.UserDetailsImpl;
 import com.unipay.repository.UserRepository;
+import com.unipay.service.role.RolePermissionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final RolePermissionRegistry rolePermissionRegistry;
 
+    /**
+     * Loads the principal from the {@link AuthUserView} projection: a scalar query, so no {@code User}
+     * entity or persistence-context snapshot is created for the request.
+     */
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("Attempting to load user by username: {}", username);
-        User user = userRepository.findByEmail(username)
+        log.debug("Attempting to load user by username: {}", username);
+        AuthUserView user = userRepository.findAuthViewByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-        return UserDetailsImpl.create(user);
+        return toUserDetails(user);
+    }
+
+    /**
+     * Called by Spring Security after a successful login whose stored hash is below the configured
+     * bcrypt cost; persists the re-encoded password with a single UPDATE.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        if (userRepository.updatePasswordHash(userDetails.getUsername(), newPassword) == 0) {
+            throw new UsernameNotFoundException("User not found with username: " + userDetails.getUsername());
+        }
+        log.info("Upgraded password hash for user: {}", userDetails.getUsername());
+        return loadUserByUsername(userDetails.getUsername());
+    }
+
+    private UserDetails toUserDetails(AuthUserView user) {
+        return UserDetailsImpl.fromView(user, rolePermissionRegistry.resolve(user.roleIds()));
     }
 }
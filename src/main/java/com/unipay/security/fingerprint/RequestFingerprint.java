@@ -0,0 +1,17 @@
+package com.unipay.security.fingerprint;
+
+/**
+ * Client identity derived from an HTTP request by {@link RequestFingerprintResolver}.
+ *
+ * @param clientIp  the originating client address, taken from forwarding headers only when set by a trusted proxy
+ * @param userAgent the raw {@code User-Agent} header, truncated to fit the database columns
+ * @param deviceId  a stable hash of the client's identifying headers, used to recognise a returning device
+ * @param device    the parsed browser, operating system and device type
+ */
+public record RequestFingerprint(
+        String clientIp,
+        String userAgent,
+        String deviceId,
+        UserAgentInfo device
+) {
+}
@@ -0,0 +1,179 @@
+package com.unipay.security.fingerprint;
+
+import com.google.common.hash.Hasher;
+import com.google.common.net.InetAddresses;
+import com.google.common.hash.Hashing;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derives a {@link RequestFingerprint} from request headers without any DNS lookups.
+ *
+ * <p>The client IP is the socket peer unless that peer is one of {@code request.trusted-proxies}
+ * (IP addresses or CIDR ranges). In that case the {@code Forwarded} header (RFC 7239), or else
+ * {@code X-Forwarded-For}, is read right to left and the first hop that is not itself a trusted proxy
+ * wins, so a client cannot spoof its address by prepending entries.</p>
+ *
+ * <p>The device ID is a SHA-256 digest of the headers a browser sends consistently
+ * ({@code User-Agent}, {@code Accept-Language} and the {@code Sec-CH-UA} client hints). It does not
+ * include the IP, so a device keeps its ID across networks. The result is stored as a request
+ * attribute, so resolving twice in one request is free.</p>
+ */
+@Slf4j
+@Component
+public class RequestFingerprintResolver {
+
+    private static final String ATTRIBUTE = RequestFingerprint.class.getName();
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+    private static final int DEVICE_ID_BYTES = 16;
+    private static final String[] DEVICE_HEADERS = {
+            "User-Agent", "Accept-Language", "Sec-CH-UA", "Sec-CH-UA-Platform", "Sec-CH-UA-Mobile"
+    };
+
+    private final UserAgentParser userAgentParser;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public RequestFingerprintResolver(
+            UserAgentParser userAgentParser,
+            @Value("${request.trusted-proxies:}") List<String> trustedProxies
+    ) {
+        this.userAgentParser = userAgentParser;
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public RequestFingerprint resolve(HttpServletRequest request) {
+        Object cached = request.getAttribute(ATTRIBUTE);
+        if (cached instanceof RequestFingerprint fingerprint) {
+            return fingerprint;
+        }
+        String userAgent = request.getHeader("User-Agent");
+        RequestFingerprint fingerprint = new RequestFingerprint(
+                resolveClientIp(request),
+                userAgent != null && userAgent.length() > MAX_USER_AGENT_LENGTH
+                        ? userAgent.substring(0, MAX_USER_AGENT_LENGTH) : userAgent,
+                deviceId(request),
+                userAgentParser.parse(userAgent));
+        request.setAttribute(ATTRIBUTE, fingerprint);
+        return fingerprint;
+    }
+
+    public String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        List<String> hops = forwardedHops(request);
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            if (!isTrusted(hop)) {
+                return hop;
+            }
+        }
+        return hops.isEmpty() ? remoteAddr : hops.get(0);
+    }
+
+    private String deviceId(HttpServletRequest request) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String header : DEVICE_HEADERS) {
+            String value = request.getHeader(header);
+            hasher.putString(value != null ? value : "", StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        byte[] digest = hasher.hash().asBytes();
+        StringBuilder hex = new StringBuilder(DEVICE_ID_BYTES * 2);
+        for (int i = 0; i < DEVICE_ID_BYTES; i++) {
+            hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private boolean isTrusted(String address) {
+        if (trustedProxies.isEmpty() || address == null || !isIpLiteral(address)) {
+            return false;
+        }
+        try {
+            for (IpAddressMatcher proxy : trustedProxies) {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            log.debug("Cannot match address against trusted proxies: {}", address, ex);
+        }
+        return false;
+    }
+
+    /**
+     * @return the forwarded client chain, nearest-to-client first, with ports and brackets stripped
+     */
+    private List<String> forwardedHops(HttpServletRequest request) {
+        List<String> hops = new ArrayList<>();
+        String forwarded = request.getHeader("Forwarded");
+        if (forwarded != null) {
+            for (String element : forwarded.split(",")) {
+                for (String pair : element.split(";")) {
+                    String trimmed = pair.trim();
+                    if (trimmed.regionMatches(true, 0, "for=", 0, 4)) {
+                        addHop(hops, stripPort(unquote(trimmed.substring(4))));
+                    }
+                }
+            }
+            return hops;
+        }
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null) {
+            for (String hop : xForwardedFor.split(",")) {
+                addHop(hops, stripPort(hop.trim()));
+            }
+        }
+        return hops;
+    }
+
+    private void addHop(List<String> hops, String hop) {
+        if (!hop.isEmpty() && isIpLiteral(hop)) {
+            hops.add(hop);
+        } else {
+            log.debug("Ignoring non-IP forwarded hop: {}", hop);
+        }
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Handles {@code 1.2.3.4:80}, {@code [2001:db8::1]:80} and bare IPv6 literals.
+     */
+    private static String stripPort(String hop) {
+        if (hop.startsWith("[")) {
+            int end = hop.indexOf(']');
+            return end > 0 ? hop.substring(1, end) : hop;
+        }
+        int colon = hop.indexOf(':');
+        if (colon > 0 && colon == hop.lastIndexOf(':')) {
+            return hop.substring(0, colon);
+        }
+        return hop;
+    }
+
+    /**
+     * Accepts only IPv4/IPv6 literals so that matching can never trigger a hostname lookup.
+     */
+    private static boolean isIpLiteral(String value) {
+        return InetAddresses.isInetAddress(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.unipay.security.fingerprint;
+
+/**
+ * Coarse classification of a {@code User-Agent} string, produced by {@link UserAgentParser}.
+ */
+public record UserAgentInfo(String browser, String operatingSystem, String deviceType) {
+
+    public static final UserAgentInfo UNKNOWN = new UserAgentInfo("Unknown", "Unknown", "Unknown");
+
+    /**
+     * @return a human-readable description such as {@code "Chrome on Windows (Desktop)"}
+     */
+    public String displayName() {
+        return browser + " on " + operatingSystem + " (" + deviceType + ")";
+    }
+}
@@ -0,0 +1,93 @@
+package com.unipay.security.fingerprint;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Classifies {@code User-Agent} strings by browser, operating system and device type.
+ *
+ * <p>Clients send the same handful of strings over and over, so results are kept in a bounded cache
+ * ({@code request.user-agent-cache.maximum-size}) and each distinct string is parsed once. Cache
+ * statistics are published under {@code user-agent.parse}.</p>
+ */
+@Component
+public class UserAgentParser {
+
+    /**
+     * Ordered token lists: the first matching token wins, so more specific tokens come first
+     * (Edge and Opera both also claim to be Chrome, Chrome also claims to be Safari).
+     */
+    private static final List<Map.Entry<String, String>> BROWSERS = List.of(
+            Map.entry("edg/", "Edge"),
+            Map.entry("opr/", "Opera"),
+            Map.entry("firefox/", "Firefox"),
+            Map.entry("chrome/", "Chrome"),
+            Map.entry("crios/", "Chrome"),
+            Map.entry("safari/", "Safari"),
+            Map.entry("postmanruntime/", "Postman"),
+            Map.entry("curl/", "curl"),
+            Map.entry("okhttp/", "OkHttp"));
+
+    private static final List<Map.Entry<String, String>> OPERATING_SYSTEMS = List.of(
+            Map.entry("android", "Android"),
+            Map.entry("iphone", "iOS"),
+            Map.entry("ipad", "iOS"),
+            Map.entry("windows", "Windows"),
+            Map.entry("mac os x", "macOS"),
+            Map.entry("cros", "ChromeOS"),
+            Map.entry("linux", "Linux"));
+
+    private final LoadingCache<String, UserAgentInfo> cache;
+
+    public UserAgentParser(
+            MeterRegistry meterRegistry,
+            @Value("${request.user-agent-cache.maximum-size:2000}") long maximumSize
+    ) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build(CacheLoader.from(UserAgentParser::classify));
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "user-agent.parse");
+    }
+
+    public UserAgentInfo parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UserAgentInfo.UNKNOWN;
+        }
+        return cache.getUnchecked(userAgent);
+    }
+
+    private static UserAgentInfo classify(String userAgent) {
+        String value = userAgent.toLowerCase(Locale.ROOT);
+        String deviceType;
+        if (value.contains("ipad") || value.contains("tablet")) {
+            deviceType = "Tablet";
+        } else if (value.contains("mobi") || value.contains("iphone") || value.contains("android")) {
+            deviceType = "Mobile";
+        } else if (value.contains("bot") || value.contains("curl/") || value.contains("okhttp/")
+                || value.contains("postmanruntime/")) {
+            deviceType = "Other";
+        } else {
+            deviceType = "Desktop";
+        }
+        return new UserAgentInfo(firstMatch(value, BROWSERS), firstMatch(value, OPERATING_SYSTEMS), deviceType);
+    }
+
+    private static String firstMatch(String value, List<Map.Entry<String, String>> tokens) {
+        for (Map.Entry<String, String> token : tokens) {
+            if (value.contains(token.getKey())) {
+                return token.getValue();
+            }
+        }
+        return "Unknown";
+    }
+}
@@ -0,0 +1,53 @@
+package com.unipay.security.throttle;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local {@link LoginThrottle} using the generic cell rate algorithm (GCRA).
+ *
+ * <p>Each key holds a single {@link AtomicLong} "theoretical arrival time" updated by compare-and-set,
+ * so checks are lock-free. Keys live in a size-bounded cache that forgets idle keys after one period,
+ * which keeps memory bounded even when attackers rotate IPs or emails.</p>
+ */
+public class InMemoryLoginThrottle implements LoginThrottle {
+
+    private final Map<ThrottleScope, ThrottleLimit> limits;
+    private final Map<ThrottleScope, LoadingCache<String, AtomicLong>> buckets = new EnumMap<>(ThrottleScope.class);
+
+    public InMemoryLoginThrottle(Map<ThrottleScope, ThrottleLimit> limits, long maximumKeys) {
+        this.limits = limits;
+        limits.forEach((scope, limit) -> buckets.put(scope, CacheBuilder.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(limit.periodMs(), TimeUnit.MILLISECONDS)
+                .build(CacheLoader.from(() -> new AtomicLong(Long.MIN_VALUE)))));
+    }
+
+    @Override
+    public boolean tryAcquire(ThrottleScope scope, String key) {
+        ThrottleLimit limit = limits.get(scope);
+        if (limit == null) {
+            return true;
+        }
+        AtomicLong arrival = buckets.get(scope).getUnchecked(key);
+        long interval = limit.emissionIntervalNanos();
+        long burstTolerance = interval * (limit.limit() - 1);
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            long theoretical = current == Long.MIN_VALUE ? now : Math.max(current, now);
+            if (theoretical - now > burstTolerance) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, theoretical + interval)) {
+                return true;
+            }
+        }
+    }
+}
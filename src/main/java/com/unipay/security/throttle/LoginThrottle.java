@@ -0,0 +1,17 @@
+package com.unipay.security.throttle;
+
+/**
+ * Rate limiter consulted before any credential check so that rejected login attempts
+ * cost neither a database lookup nor a bcrypt verification.
+ */
+public interface LoginThrottle {
+
+    /**
+     * Consumes one attempt for the key.
+     *
+     * @param scope what the key identifies (client IP or account)
+     * @param key   the normalized key
+     * @return true if the attempt is allowed, false if the key is over its limit
+     */
+    boolean tryAcquire(ThrottleScope scope, String key);
+}
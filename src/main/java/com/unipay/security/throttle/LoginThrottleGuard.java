@@ -0,0 +1,46 @@
+package com.unipay.security.throttle;
+
+import com.unipay.exception.BusinessException;
+import com.unipay.exception.ExceptionPayloadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Applies the per-IP and per-account login limits and rejects over-limit attempts with
+ * {@link ExceptionPayloadFactory#TOO_MANY_LOGIN_ATTEMPTS}. Rejections are counted in
+ * {@code login.throttle.rejected}, tagged by scope.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginThrottleGuard {
+
+    private final LoginThrottle loginThrottle;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    public void checkLoginAllowed(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        if (clientIp != null && !loginThrottle.tryAcquire(ThrottleScope.IP, clientIp)) {
+            reject(ThrottleScope.IP, clientIp);
+        }
+        if (email != null && !loginThrottle.tryAcquire(ThrottleScope.ACCOUNT, email.trim().toLowerCase(Locale.ROOT))) {
+            reject(ThrottleScope.ACCOUNT, email);
+        }
+    }
+
+    private void reject(ThrottleScope scope, String key) {
+        meterRegistry.counter("login.throttle.rejected", "scope", scope.name().toLowerCase()).increment();
+        log.warn("Login throttled: scope={} key={}", scope, key);
+        throw new BusinessException(ExceptionPayloadFactory.TOO_MANY_LOGIN_ATTEMPTS.get());
+    }
+}
@@ -0,0 +1,52 @@
+package com.unipay.security.throttle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link LoginThrottle} sharing fixed-window counters across nodes through Redis.
+ *
+ * <p>Each attempt is one atomic INCR (plus PEXPIRE on the first hit of a window). If Redis is
+ * unreachable the attempt is allowed, so an outage degrades to no throttling rather than no logins.</p>
+ */
+@Slf4j
+public class RedisLoginThrottle implements LoginThrottle {
+
+    private static final String KEY_PREFIX = "unipay:login-throttle:";
+
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) " +
+            "if count == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "return count",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<ThrottleScope, ThrottleLimit> limits;
+
+    public RedisLoginThrottle(StringRedisTemplate redisTemplate, Map<ThrottleScope, ThrottleLimit> limits) {
+        this.redisTemplate = redisTemplate;
+        this.limits = limits;
+    }
+
+    @Override
+    public boolean tryAcquire(ThrottleScope scope, String key) {
+        ThrottleLimit limit = limits.get(scope);
+        if (limit == null) {
+            return true;
+        }
+        try {
+            Long count = redisTemplate.execute(INCREMENT_SCRIPT,
+                    List.of(KEY_PREFIX + scope.name().toLowerCase() + ":" + key),
+                    String.valueOf(limit.periodMs()));
+            return count == null || count <= limit.limit();
+        } catch (RuntimeException ex) {
+            log.error("Login throttle unavailable, allowing attempt", ex);
+            return true;
+        }
+    }
+}
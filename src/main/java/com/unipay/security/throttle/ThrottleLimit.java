@@ -0,0 +1,20 @@
+package com.unipay.security.throttle;
+
+/**
+ * Allows {@code limit} attempts per {@code periodMs}, with bursts of up to {@code limit}.
+ */
+public record ThrottleLimit(int limit, long periodMs) {
+
+    public ThrottleLimit {
+        if (limit <= 0 || periodMs <= 0) {
+            throw new IllegalArgumentException("Throttle limit and period must be positive");
+        }
+    }
+
+    /**
+     * @return the spacing between attempts at the sustained rate, in nanoseconds
+     */
+    public long emissionIntervalNanos() {
+        return Math.max(1L, periodMs * 1_000_000L / limit);
+    }
+}
@@ -0,0 +1,9 @@
+package com.unipay.security.throttle;
+
+/**
+ * Dimension a login throttle limit applies to.
+ */
+public enum ThrottleScope {
+    IP,
+    ACCOUNT
+}
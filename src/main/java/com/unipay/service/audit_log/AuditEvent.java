@@ -0,0 +1,19 @@
+package com.unipay.service.audit_log;
+
+import java.time.Instant;
+
+/**
+ * Audit entry waiting to be written to {@code audit_logs} by the {@link AuditEventPipeline}.
+ *
+ * @param userId     the acting user, or null for anonymous actions such as registration
+ * @param action     the audited action, e.g. {@code USER_LOGIN}
+ * @param details    a short, bounded description; never a serialized return value
+ * @param occurredAt when the action happened, also used to measure pipeline lag
+ */
+public record AuditEvent(
+        String userId,
+        String action,
+        String details,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,253 @@
+package com.unipay.service.audit_log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unipay.enums.AuditOverflowPolicy;
+import com.unipay.utils.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Non-blocking, write-behind sink for {@code audit_logs}.
+ *
+ * <p>Producers hand events to a lock-free queue whose size is bounded by a CAS-reserved counter
+ * ({@code audit.pipeline.queue-capacity}); a scheduled job drains it every
+ * {@code audit.pipeline.flush-interval-ms} with JDBC batch inserts. If a batch fails it is retried
+ * row by row so one bad event cannot discard its neighbours. When the queue is full the
+ * {@link AuditOverflowPolicy} ({@code audit.pipeline.overflow-policy}) decides whether the caller
+ * waits, the event is dropped, or it is spilled to {@code audit.pipeline.spill-file} as JSON lines,
+ * which are replayed into the database when the application next starts.</p>
+ *
+ * <p>Publishes {@code audit.pipeline.queue.depth}, {@code audit.pipeline.lag} (time from the action to
+ * its row being written), {@code audit.pipeline.written}, {@code audit.pipeline.dropped} and
+ * {@code audit.pipeline.spilled} metrics.</p>
+ */
+@Slf4j
+@Component
+public class AuditEventPipeline {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (id, user_id, action, details, timestamp, created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), ?, ?, ?, ?, ?, 0, false)";
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final int batchSize;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Path spillFile;
+    private final Timer lagTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+
+    public AuditEventPipeline(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${audit.pipeline.queue-capacity:10000}") int capacity,
+            @Value("${audit.pipeline.batch-size:500}") int batchSize,
+            @Value("${audit.pipeline.overflow-policy:DROP}") AuditOverflowPolicy overflowPolicy,
+            @Value("${audit.pipeline.block-timeout-ms:50}") long blockTimeoutMs,
+            @Value("${audit.pipeline.spill-file:audit-spill.jsonl}") String spillFile
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.spillFile = Paths.get(spillFile);
+        Gauge.builder("audit.pipeline.queue.depth", size, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("audit.pipeline.lag")
+                .description("Time from an audited action to its audit_logs row being written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.pipeline.written")
+                .description("Audit events written to the database")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.pipeline.dropped")
+                .description("Audit events dropped because the queue was full or the write failed")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("audit.pipeline.spilled")
+                .description("Audit events spilled to the local file because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the event without taking a lock; only the {@code BLOCK} overflow policy can make the caller wait.
+     */
+    public void publish(AuditEvent event) {
+        if (tryReserve()) {
+            queue.offer(event);
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    if (tryReserve()) {
+                        queue.offer(event);
+                        return;
+                    }
+                }
+                drop(event);
+            }
+            case SPILL -> spill(event);
+            case DROP -> drop(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.pipeline.flush-interval-ms:1000}")
+    public void flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        AuditEvent event;
+        while ((event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Writes events spilled during a previous run, then removes the spill file.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replaySpillFile() {
+        if (!Files.exists(spillFile)) {
+            return;
+        }
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        try {
+            synchronized (this) {
+                Files.move(spillFile, replaying, StandardCopyOption.REPLACE_EXISTING);
+            }
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            for (String line : Files.readAllLines(replaying, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, AuditEvent.class));
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            Files.delete(replaying);
+            log.info("Replayed spilled audit events from {}", spillFile);
+        } catch (IOException ex) {
+            log.error("Failed to replay audit spill file {}", replaying, ex);
+        }
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private synchronized void spill(AuditEvent event) {
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(event));
+            writer.newLine();
+            spilledCounter.increment();
+        } catch (IOException ex) {
+            log.error("Failed to spill audit event action={}", event.action(), ex);
+            drop(event);
+        }
+    }
+
+    private void drop(AuditEvent event) {
+        droppedCounter.increment();
+        log.warn("Audit queue full, dropping event action={} userId={}", event.action(), event.userId());
+    }
+
+    private void write(List<AuditEvent> events) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            rows.add(new Object[]{UuidV7.randomString(), event.userId(), event.action(), event.details(),
+                    Timestamp.valueOf(LocalDateTime.ofInstant(event.occurredAt(), ZoneId.systemDefault())), now, now});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            recordWritten(events);
+        } catch (RuntimeException ex) {
+            log.warn("Audit batch of {} failed, retrying row by row", rows.size(), ex);
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, rows.get(i));
+                    recordWritten(List.of(events.get(i)));
+                } catch (RuntimeException rowEx) {
+                    droppedCounter.increment();
+                    log.error("Failed to write audit event action={} userId={}", events.get(i).action(),
+                            events.get(i).userId(), rowEx);
+                }
+            }
+        }
+    }
+
+    private void recordWritten(List<AuditEvent> events) {
+        Instant now = Instant.now();
+        for (AuditEvent event : events) {
+            lagTimer.record(Duration.between(event.occurredAt(), now));
+        }
+        writtenCounter.increment(events.size());
+    }
+}
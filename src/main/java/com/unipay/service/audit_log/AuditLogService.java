@@ -2,6 +2,7 @@ package com.unipay.service.audit_log;
 
 import com.unipay.models.AuditLog;
 import com.unipay.models.User;
+import com.unipay.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,7 +13,7 @@ import org.springframework.data.domain.Pageable;
 public interface AuditLogService {
 
     /**
-     * Creates and saves an audit log entry for the specified user.
+     * Records an audit log entry for the specified user. The row is written asynchronously.
      *
      * @param user    The user who performed the action.
      * @param action  The action performed by the user.
@@ -37,4 +38,15 @@ public interface AuditLogService {
      * @return A paginated list of audit logs.
      */
     Page<AuditLog> getAuditLogsByUserId(Pageable pageable, String userId);
+
+    /**
+     * Retrieves one keyset-paginated slice of a user's audit logs, newest first.
+     *
+     * @param userId The user ID whose audit logs are to be retrieved.
+     * @param cursor The continuation token from the previous slice, or null for the first one.
+     * @param size   The requested slice size.
+     * @param count  Whether to also count all of the user's audit logs.
+     * @return A slice of audit logs with the token for the next one.
+     */
+    CursorPage<AuditLog> scrollAuditLogsByUserId(String userId, String cursor, Integer size, boolean count);
 }
@@ -5,14 +5,19 @@ import com.unipay.exception.ExceptionPayloadFactory;
 import com.unipay.models.AuditLog;
 import com.unipay.models.User;
 import com.unipay.repository.AuditLogRepository;
+import com.unipay.response.CursorPage;
+import com.unipay.utils.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 
 @Slf4j
 @Service
@@ -20,19 +25,28 @@ import java.time.LocalDateTime;
 public class AuditLogServiceImpl implements AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditEventPipeline auditEventPipeline;
+    private final CursorCodec cursorCodec;
 
+    /**
+     * Hands the entry to the {@link AuditEventPipeline} once the surrounding transaction commits, so
+     * the business transaction never waits on the audit write and rolled-back work is not audited.
+     */
     @Override
-    @Transactional
     public void createAuditLog(User user, String action, String details) {
-        log.debug("Creating AuditLog for userId={} with action={}", user.getId(), action);
+        log.debug("Queueing AuditLog for userId={} with action={}", user.getId(), action);
 
-        AuditLog auditLog = AuditLog.create(action, details, LocalDateTime.now());
-        auditLog.setUser(user);
-        user.addAuditLog(auditLog);
-
-        auditLogRepository.save(auditLog);
-
-        log.info("AuditLog created successfully: id={}, userId={}", auditLog.getId(), user.getId());
+        AuditEvent event = new AuditEvent(user.getId(), action, details, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditEventPipeline.publish(event);
+                }
+            });
+        } else {
+            auditEventPipeline.publish(event);
+        }
     }
 
     @Override
@@ -54,4 +68,14 @@ public class AuditLogServiceImpl implements AuditLogService {
         log.info("Fetched {} AuditLogs for userId={}", auditLogs.getTotalElements(), userId);
         return auditLogs;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLog> scrollAuditLogsByUserId(String userId, String cursor, Integer size, boolean count) {
+        String scope = "audit-logs:" + userId;
+        Window<AuditLog> auditLogs = auditLogRepository.findByUser_IdOrderByTimestampDescIdDesc(userId,
+                cursorCodec.decode(scope, cursor, "timestamp"), cursorCodec.limit(size));
+        Long total = count ? auditLogRepository.countByUser_Id(userId) : null;
+        return cursorCodec.toPage(scope, auditLogs, AuditLog::getTimestamp, total);
+    }
 }
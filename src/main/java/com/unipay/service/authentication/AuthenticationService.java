@@ -29,6 +29,8 @@ public interface AuthenticationService {
 
     /**
      * Retrieves the current authenticated user from the security context.
+     * The entity is loaded on demand, so claims-only principals never touch the
+     * database unless a caller actually needs the full user.
      *
      * @return The current authenticated user.
      */
@@ -5,12 +5,15 @@ import com.unipay.command.LoginCommand;
 import com.unipay.command.UserRegisterCommand;
 import com.unipay.enums.UserStatus;
 import com.unipay.exception.AuthException;
-import com.unipay.models.LoginHistory;
 import com.unipay.models.User;
-import com.unipay.models.UserSession;
+import com.unipay.payload.AuthUserView;
 import com.unipay.payload.UserDetailsImpl;
 import com.unipay.response.LoginResponse;
+import com.unipay.security.fingerprint.RequestFingerprint;
+import com.unipay.security.fingerprint.RequestFingerprintResolver;
+import com.unipay.service.login_histroy.LoginHistoryService;
 import com.unipay.service.mail.EmailService;
+import com.unipay.service.session.SessionAcquisition;
 import com.unipay.service.session.UserSessionService;
 import com.unipay.service.user.UserService;
 import com.unipay.utils.JwtService;
@@ -27,10 +30,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.time.Instant;
-import java.time.LocalDateTime;
 
 @Slf4j
 @Service
@@ -42,6 +42,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final UserService userService;
     private final UserSessionService userSessionService;
     private final AuthenticationManager authenticationManager;
+    private final RequestFingerprintResolver requestFingerprintResolver;
+    private final LoginHistoryService loginHistoryService;
 
 
 
@@ -56,20 +58,20 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     public LoginResponse login(LoginCommand command, HttpServletRequest request) {
         String email = command.getEmail();
         String password = command.getPassword();
-        String userAgent = request.getHeader("User-Agent");
-        String clientIp = getClientIp(request);
-        String deviceId = getDeviceName();
+        RequestFingerprint fingerprint = requestFingerprintResolver.resolve(request);
+        String userAgent = fingerprint.userAgent();
+        String clientIp = fingerprint.clientIp();
 
         log.debug("Attempting login for email: {}", email);
 
-        User user = retrieveUser(email);
+        AuthUserView user = retrieveUser(email);
         validateUserStatus(user, clientIp, userAgent);
 
         Authentication authentication = authenticateUser(email, password);
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        UserSession session = manageSession(user, deviceId, clientIp, userAgent, request);
-        String jwt = jwtService.generateJwtToken(authentication, session.getId());
+        SessionAcquisition session = manageSession(user, fingerprint);
+        String jwt = jwtService.generateJwtToken(authentication, session.sessionId());
 
         recordLoginSuccess(user, clientIp, userAgent);
 
@@ -107,52 +109,33 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
     }
 
-    private UserSession manageSession(User user, String deviceId, String clientIp, String userAgent, HttpServletRequest request) {
-        boolean isNewDevice = !userSessionService.hasActiveSessionForDevice(user, deviceId);
-        if (isNewDevice) {
-            UserSession session = userSessionService.createSession(user, deviceId, clientIp, userAgent, Instant.now().plusMillis(jwtService.getExpirationMs()));
-            emailService.sendNewLoginDetected(user.getEmail(), user.getUsername(), deviceId, request);
-            return session;
-        } else {
-            return userSessionService.findActiveByUserAndDevice(user, deviceId, Instant.now())
-                    .orElseThrow(() -> new IllegalStateException("Expected existing session"));
+    private SessionAcquisition manageSession(AuthUserView user, RequestFingerprint fingerprint) {
+        SessionAcquisition session = userSessionService.findOrCreateSession(user.id(), fingerprint.deviceId(),
+                fingerprint.clientIp(), fingerprint.userAgent(), Instant.now().plusMillis(jwtService.getExpirationMs()));
+        if (session.created()) {
+            emailService.sendNewLoginDetected(user.email(), user.username(), fingerprint);
         }
+        return session;
     }
-    private void recordLoginSuccess(User user, String clientIp, String userAgent) {
-        user.addLoginHistory(LoginHistory.createSuccess(user, LocalDateTime.now(), clientIp, userAgent));
+    private void recordLoginSuccess(AuthUserView user, String clientIp, String userAgent) {
+        loginHistoryService.recordLogin(user.id(), clientIp, userAgent, true);
     }
 
-    private String getDeviceName() {
-        try {
-            InetAddress localHost = InetAddress.getLocalHost();
-            return localHost.getHostName();
-        } catch (UnknownHostException e) {
-            log.error("Unable to determine device name.", e);
-            return "unknown-device";
-        }
-    }
-
-    public static String getClientIp(HttpServletRequest request) {
-        try {
-            InetAddress localHost = InetAddress.getLocalHost();
-            return localHost.getHostAddress();
-        } catch (UnknownHostException e) {
-            log.error("Unable to determine IP address.", e);
-            return "unknown-ipAddress";
-        }
-    }
-    private User retrieveUser(String email) {
-        return userService.findByEmail(email)
+    /**
+     * Loads only the {@link AuthUserView} projection; no {@link User} entity is materialized for a login.
+     */
+    private AuthUserView retrieveUser(String email) {
+        return userService.findAuthViewByEmail(email)
                 .orElseThrow(() -> {
                     log.warn("Login attempt for non-existent email: {}", email);
                     throw new BadCredentialsException("Invalid credentials");
                 });
     }
 
-    private void validateUserStatus(User user, String clientIp, String userAgent) {
-        if (user.getStatus() != UserStatus.ACTIVE) {
-            log.warn("Login attempt for disabled account. Email: {}, Status: {}", user.getEmail(), user.getStatus());
-            user.addLoginHistory(LoginHistory.createFailure(user, LocalDateTime.now(), clientIp, userAgent, "ACCOUNT_DISABLED"));
+    private void validateUserStatus(AuthUserView user, String clientIp, String userAgent) {
+        if (user.status() != UserStatus.ACTIVE) {
+            log.warn("Login attempt for disabled account. Email: {}, Status: {}", user.email(), user.status());
+            loginHistoryService.recordLogin(user.id(), clientIp, userAgent, false);
             throw new AuthException("Account is not active", HttpStatus.UNAUTHORIZED);
         }
     }
@@ -3,9 +3,12 @@ package com.unipay.service.business;
 import com.unipay.command.CreateBusinessCommand;
 import com.unipay.models.Business;
 import com.unipay.models.User;
+import com.unipay.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Map;
+
 public interface BusinessService {
     /** Create a new Business for the current user */
     Business create(CreateBusinessCommand command);
@@ -13,8 +16,14 @@ public interface BusinessService {
     /** Fetch a single Business by its ID, only if owned by current user */
     Business findById(String id);
 
-    /** List all Businesses belonging to the current user */
-    Page<Business> findForCurrentUser(Pageable pageable, User user);
+    /** Fetch the requested fields of a single Business by its ID, without loading the entity */
+    Map<String, Object> findFieldsById(String id, String fields);
+
+    /** List the requested fields of all Businesses belonging to the current user */
+    Page<Map<String, Object>> findForCurrentUser(Pageable pageable, User user, String fields);
+
+    /** List the requested fields of the user's Businesses one keyset-paginated slice at a time, newest first */
+    CursorPage<Map<String, Object>> scrollForUser(User user, String fields, String cursor, Integer size, boolean count);
 
     /** Update an existing Business (only mutable fields) */
     Business update(String id, CreateBusinessCommand command);
@@ -2,20 +2,30 @@ package com.unipay.service.business;
 
 
 import com.unipay.command.CreateBusinessCommand;
+import com.unipay.constants.FieldSets;
 import com.unipay.exception.BusinessException;
 import com.unipay.exception.ExceptionPayloadFactory;
 import com.unipay.models.Business;
+import com.unipay.models.Business_;
 import com.unipay.models.User;
+import com.unipay.models.User_;
 import com.unipay.repository.BusinessRepository;
+import com.unipay.response.CursorPage;
+import com.unipay.utils.CursorCodec;
 import com.unipay.service.authentication.AuthenticationService;
 import com.unipay.utils.JSONUtil;
+import com.unipay.utils.SparseFieldsetQuery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -24,6 +34,8 @@ public class BusinessServiceImpl implements BusinessService{
 
     private final AuthenticationService authenticationService;
     private final BusinessRepository businessRepository;
+    private final CursorCodec cursorCodec;
+    private final SparseFieldsetQuery sparseFieldsetQuery;
 
 
     @Override
@@ -47,12 +59,34 @@ public class BusinessServiceImpl implements BusinessService{
     }
 
     @Override
-    public Page<Business> findForCurrentUser(Pageable pageable, User user) {
-        return businessRepository.getBusinessesByUser_Id(pageable, user.getId()).orElseThrow(
-                () -> new BusinessException(ExceptionPayloadFactory.BUSINESS_FOR_USER_NOT_FOUND.get())
+    @Transactional(readOnly = true)
+    public Map<String, Object> findFieldsById(String businessId, String fields) {
+        log.info("Begin fetching fields of business with id {}", businessId);
+        return sparseFieldsetQuery.findOne(Business.class, FieldSets.BUSINESSES, FieldSets.BUSINESSES.select(fields),
+                hasId(businessId)).orElseThrow(
+                () -> new BusinessException(ExceptionPayloadFactory.BUSINESS_NOT_FOUND.get())
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findForCurrentUser(Pageable pageable, User user, String fields) {
+        return sparseFieldsetQuery.findPage(Business.class, FieldSets.BUSINESSES, FieldSets.BUSINESSES.select(fields),
+                ownedBy(user), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> scrollForUser(User user, String fields, String cursor, Integer size,
+                                                         boolean count) {
+        String scope = "businesses:" + user.getId();
+        Window<Map<String, Object>> businesses = sparseFieldsetQuery.scroll(Business.class, FieldSets.BUSINESSES,
+                FieldSets.BUSINESSES.select(fields), ownedBy(user),
+                cursorCodec.decode(scope, cursor, "createdAt"), cursorCodec.limit(size));
+        Long total = count ? businessRepository.countByUser_Id(user.getId()) : null;
+        return cursorCodec.toPage(scope, businesses, "createdAt", total);
+    }
+
     @Override
     public Business update(String id, CreateBusinessCommand command) {
         final Business business = findById(id);
@@ -66,4 +100,12 @@ public class BusinessServiceImpl implements BusinessService{
         final Business business = findById(id);
         business.setDeleted(false);
     }
+
+    private static Specification<Business> hasId(String id) {
+        return (root, query, cb) -> cb.equal(root.get(Business_.id), id);
+    }
+
+    private static Specification<Business> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get(Business_.user).get(User_.id), user.getId());
+    }
 }
@@ -0,0 +1,180 @@
+package com.unipay.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unipay.criteria.UserCriteria;
+import com.unipay.enums.DataFormat;
+import com.unipay.utils.UserSpecification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams users and transactions matching a {@link UserCriteria} straight from the database to a response.
+ *
+ * <p>Each export runs one read-only query in its own transaction with a JDBC fetch size of
+ * {@code export.fetch-size}, so the PostgreSQL driver reads the result through a server-side cursor in
+ * batches of that many rows instead of loading the whole result. Each row is written to the output as
+ * soon as it is read and then discarded, so heap use stays the same however many rows are exported.
+ * No entities are loaded and no {@code Page} or DTO list is built.</p>
+ *
+ * <p>The export holds one database connection for as long as the client takes to download it. The filters
+ * match those of {@link UserSpecification}; transactions are filtered by their
+ * merchant. Users are exported in {@code (created_at, id)} order; transactions
+ * are exported in storage order so the whole table is not sorted. Publishes {@code export.rows} per
+ * dataset.</p>
+ */
+@Slf4j
+@Service
+public class DataExportService {
+
+    private static final List<String> USER_COLUMNS = List.of("id", "username", "email", "status", "createdAt",
+            "fullName", "dateOfBirth", "phoneNumber", "gender", "nationality");
+    private static final String USER_SELECT =
+            "SELECT u.id, u.username, u.email, u.status, u.created_at, " +
+            "p.full_name, p.date_of_birth, p.phone_number, p.gender, p.nationality " +
+            "FROM users u LEFT JOIN user_profiles p ON p.user_id = u.id";
+
+    private static final List<String> TRANSACTION_COLUMNS = List.of("id", "merchantId", "merchantEmail", "amount",
+            "currency", "status", "paymentMethod", "customerEmail", "gatewayTransactionId", "createdAt");
+    private static final String TRANSACTION_SELECT =
+            "SELECT t.id, t.merchant_id, u.email, t.amount, t.currency, t.status, t.payment_method, " +
+            "t.customer_email, t.gateway_transaction_id, t.created_at " +
+            "FROM transaction t JOIN users u ON u.id = t.merchant_id " +
+            "LEFT JOIN user_profiles p ON p.user_id = u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter userRows;
+    private final Counter transactionRows;
+
+    public DataExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${export.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.userRows = Counter.builder("export.rows")
+                .tag("dataset", "users")
+                .description("Rows written by streaming exports")
+                .register(meterRegistry);
+        this.transactionRows = Counter.builder("export.rows")
+                .tag("dataset", "transactions")
+                .description("Rows written by streaming exports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes every user matching the criteria to the stream, then closes it.
+     *
+     * @return the number of rows written
+     */
+    public long exportUsers(UserCriteria criteria, DataFormat format, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        String sql = USER_SELECT + where(criteria, args) + " ORDER BY u.created_at, u.id";
+        return stream(sql, args, USER_COLUMNS, format, out, userRows);
+    }
+
+    /**
+     * Writes every transaction whose merchant matches the criteria to the stream, then closes it.
+     *
+     * @return the number of rows written
+     */
+    public long exportTransactions(UserCriteria criteria, DataFormat format, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        String sql = TRANSACTION_SELECT + where(criteria, args);
+        return stream(sql, args, TRANSACTION_COLUMNS, format, out, transactionRows);
+    }
+
+    private long stream(String sql, List<Object> args, List<String> columns, DataFormat format, OutputStream out,
+                        Counter rowCounter) {
+        long[] rows = {0};
+        try (ExportWriter writer = ExportWriter.create(format, out, columns, objectMapper)) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql, rs -> {
+                try {
+                    writer.writeRow(readRow(rs, columns.size()));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                rows[0]++;
+            }, args.toArray()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            rowCounter.increment(rows[0]);
+        }
+        log.info("Exported {} rows", rows[0]);
+        return rows[0];
+    }
+
+    private Object[] readRow(ResultSet rs, int columnCount) throws SQLException {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            Object value = rs.getObject(i + 1);
+            if (value instanceof Timestamp timestamp) {
+                value = timestamp.toLocalDateTime().toString();
+            } else if (value instanceof java.sql.Date date) {
+                value = date.toLocalDate().toString();
+            } else if (value != null && !(value instanceof Number) && !(value instanceof Boolean)) {
+                value = value.toString();
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Builds the SQL equivalent of {@link UserSpecification} over {@code u} (users) and
+     * {@code p} (user_profiles), appending its bind values to {@code args}.
+     */
+    private String where(UserCriteria criteria, List<Object> args) {
+        List<String> predicates = new ArrayList<>();
+        if (criteria.getUsername() != null && !criteria.getUsername().isEmpty()) {
+            predicates.add("lower(u.username) LIKE ?");
+            args.add(UserSpecification.containsPattern(criteria.getUsername()));
+        }
+        if (criteria.getEmail() != null && !criteria.getEmail().isEmpty()) {
+            predicates.add("lower(u.email) LIKE ?");
+            args.add(UserSpecification.containsPattern(criteria.getEmail()));
+        }
+        if (criteria.getStatus() != null) {
+            predicates.add("u.status = ?");
+            args.add(criteria.getStatus().name());
+        }
+        if (criteria.getRoleName() != null) {
+            predicates.add("EXISTS (SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+                    "WHERE ur.user_id = u.id AND r.name = ?)");
+            args.add(criteria.getRoleName().name());
+        }
+        if (criteria.getDateOfBirthFrom() != null) {
+            predicates.add("p.date_of_birth >= ?");
+            args.add(java.sql.Date.valueOf(criteria.getDateOfBirthFrom()));
+        }
+        if (criteria.getDateOfBirthTo() != null) {
+            predicates.add("p.date_of_birth <= ?");
+            args.add(java.sql.Date.valueOf(criteria.getDateOfBirthTo()));
+        }
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+}
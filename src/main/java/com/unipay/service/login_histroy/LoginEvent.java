@@ -0,0 +1,15 @@
+package com.unipay.service.login_histroy;
+
+import java.time.LocalDateTime;
+
+/**
+ * A login attempt waiting to be appended to {@code login_history} by the {@link LoginHistoryWriter}.
+ */
+public record LoginEvent(
+        String userId,
+        LocalDateTime loginTimestamp,
+        String ipAddress,
+        String userAgent,
+        boolean successful
+) {
+}
@@ -2,11 +2,14 @@ package com.unipay.service.login_histroy;
 
 import com.unipay.models.LoginHistory;
 import com.unipay.models.User;
+import com.unipay.response.CursorPage;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface LoginHistoryService {
     void createLoginHistory(User user, HttpServletRequest request, boolean successful);
+    void recordLogin(String userId, String ipAddress, String userAgent, boolean successful);
     Page<LoginHistory> getLoginHistoryByUserId(Pageable pageable, String userId);
+    CursorPage<LoginHistory> scrollLoginHistoryByUserId(String userId, String cursor, Integer size, boolean count);
 }
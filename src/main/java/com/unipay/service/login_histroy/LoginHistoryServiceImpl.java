@@ -3,37 +3,44 @@ package com.unipay.service.login_histroy;
 import com.unipay.models.LoginHistory;
 import com.unipay.models.User;
 import com.unipay.repository.LoginHistoryRepository;
+import com.unipay.response.CursorPage;
+import com.unipay.security.fingerprint.RequestFingerprint;
+import com.unipay.security.fingerprint.RequestFingerprintResolver;
+import com.unipay.utils.CursorCodec;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LoginHistoryServiceImpl implements LoginHistoryService {
 
     private final LoginHistoryRepository loginHistoryRepository;
+    private final RequestFingerprintResolver requestFingerprintResolver;
+    private final LoginHistoryWriter loginHistoryWriter;
+    private final CursorCodec cursorCodec;
 
+    /**
+     * Queues the attempt for the {@link LoginHistoryWriter}; the row is written asynchronously.
+     */
     @Override
-    @Transactional
     public void createLoginHistory(User user, HttpServletRequest request, boolean successful) {
-        String ipAddress = request.getRemoteAddr();
-        String userAgent = request.getHeader("User-Agent");
-
-        LoginHistory loginHistory = LoginHistory.create(user, successful);
-        loginHistory.setIpAddress(ipAddress);
-        loginHistory.setUserAgent(userAgent);
-        loginHistory.setSuccessful(successful);
-
-
-
-        loginHistoryRepository.save(loginHistory);
+        RequestFingerprint fingerprint = requestFingerprintResolver.resolve(request);
+        recordLogin(user.getId(), fingerprint.clientIp(), fingerprint.userAgent(), successful);
+    }
 
-        log.info("LoginHistory created for userId={} from IP={} [{}]", user.getId(), ipAddress, successful ? "SUCCESS" : "FAILURE");
+    @Override
+    public void recordLogin(String userId, String ipAddress, String userAgent, boolean successful) {
+        loginHistoryWriter.append(new LoginEvent(userId, LocalDateTime.now(), ipAddress, userAgent, successful));
+        log.debug("LoginHistory queued for userId={} from IP={} [{}]", userId, ipAddress, successful ? "SUCCESS" : "FAILURE");
     }
 
     @Override
@@ -46,4 +53,14 @@ public class LoginHistoryServiceImpl implements LoginHistoryService {
         log.info("Fetched {} LoginHistory records for userId={}", loginHistories.getTotalElements(), userId);
         return loginHistories;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<LoginHistory> scrollLoginHistoryByUserId(String userId, String cursor, Integer size, boolean count) {
+        String scope = "login-history:" + userId;
+        Window<LoginHistory> loginHistories = loginHistoryRepository.findByUser_IdOrderByLoginTimestampDescIdDesc(userId,
+                cursorCodec.decode(scope, cursor, "loginTimestamp"), cursorCodec.limit(size));
+        Long total = count ? loginHistoryRepository.countByUser_Id(userId) : null;
+        return cursorCodec.toPage(scope, loginHistories, LoginHistory::getLoginTimestamp, total);
+    }
 }
@@ -0,0 +1,114 @@
+package com.unipay.service.login_histroy;
+
+import com.unipay.utils.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Append-only, write-behind sink for {@code login_history}.
+ *
+ * <p>Events go into a fixed-size ring buffer ({@code login-history.buffer-capacity}) and a background
+ * job drains it every {@code login-history.flush-interval-ms} with JDBC batch inserts. Recording a
+ * login never touches the user's {@code loginHistories} collection, so its cost does not grow with the
+ * number of past logins. If the buffer is full the event is dropped and counted rather than blocking
+ * the login.</p>
+ *
+ * <p>Publishes {@code login.history.buffer.depth}, {@code login.history.flush} (latency),
+ * {@code login.history.flushed} and {@code login.history.dropped} metrics.</p>
+ */
+@Slf4j
+@Component
+public class LoginHistoryWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO login_history (id, user_id, login_timestamp, ip_address, user_agent, successful, " +
+            "created_at, updated_at, version, is_deleted) VALUES (CAST(? AS uuid), CAST(? AS uuid), ?, ?, ?, ?, ?, ?, 0, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final BlockingQueue<LoginEvent> buffer;
+    private final Timer flushTimer;
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+
+    public LoginHistoryWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${login-history.buffer-capacity:10000}") int bufferCapacity,
+            @Value("${login-history.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        Gauge.builder("login.history.buffer.depth", buffer, BlockingQueue::size)
+                .description("Login events waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("login.history.flush")
+                .description("Time spent flushing buffered login events")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("login.history.flushed")
+                .description("Login events written to the database")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("login.history.dropped")
+                .description("Login events dropped because the buffer was full")
+                .register(meterRegistry);
+    }
+
+    public void append(LoginEvent event) {
+        if (!buffer.offer(event)) {
+            droppedCounter.increment();
+            log.warn("Login history buffer full, dropping event for userId={}", event.userId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login-history.flush-interval-ms:1000}")
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        flushTimer.record(this::drain);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void drain() {
+        List<LoginEvent> events = new ArrayList<>(batchSize);
+        while (buffer.drainTo(events, batchSize) > 0) {
+            write(events);
+            events.clear();
+        }
+    }
+
+    private void write(List<LoginEvent> events) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>(events.size());
+        for (LoginEvent event : events) {
+            batch.add(new Object[]{UuidV7.randomString(), event.userId(), Timestamp.valueOf(event.loginTimestamp()),
+                    event.ipAddress(), event.userAgent(), event.successful(), now, now});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            flushedCounter.increment(batch.size());
+            log.debug("Flushed {} login events", batch.size());
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush {} login events", batch.size(), ex);
+        }
+    }
+}
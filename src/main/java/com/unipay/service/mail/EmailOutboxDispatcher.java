@@ -0,0 +1,141 @@
+package com.unipay.service.mail;
+
+import com.unipay.enums.EmailOutboxType;
+import com.unipay.enums.OutboxStatus;
+import com.unipay.models.User;
+import com.unipay.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sends the mail queued in {@code email_outbox}.
+ *
+ * <p>Every {@code email.outbox.poll-interval-ms} up to {@code email.outbox.batch-size} due entries are
+ * leased with {@code FOR UPDATE SKIP LOCKED}: their {@code next_attempt_at} is pushed
+ * {@code email.outbox.lease-ms} ahead, so several nodes can drain the outbox without sending twice, and
+ * an entry whose node dies mid-send becomes due again. Each entry is then sent in its own transaction.
+ * A failed entry is retried with exponential backoff from {@code email.outbox.retry-backoff-ms} and
+ * marked {@code FAILED} after {@code email.outbox.max-attempts}.</p>
+ *
+ * <p>Mail is sent on the dispatcher thread through {@link EmailService#deliverConfirmationEmail}, which
+ * lets SMTP failures reach the retry logic. Confirmation tokens are created at send time, so their validity
+ * window starts when the mail goes out rather than when the row was queued; a failed send rolls its token
+ * back. Publishes {@code email.outbox.sent} and {@code email.outbox.failed}.</p>
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final String LEASE_SQL =
+            "UPDATE email_outbox SET next_attempt_at = ? WHERE id IN (" +
+            "SELECT id FROM email_outbox WHERE status = ? AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, user_id, type, attempts";
+    private static final String SENT_SQL =
+            "UPDATE email_outbox SET status = ?, attempts = attempts + 1, last_error = NULL, updated_at = ? " +
+            "WHERE id = CAST(? AS uuid)";
+    private static final String RETRY_SQL =
+            "UPDATE email_outbox SET status = ?, attempts = ?, next_attempt_at = ?, last_error = ?, updated_at = ? " +
+            "WHERE id = CAST(? AS uuid)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final int batchSize;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public EmailOutboxDispatcher(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            UserRepository userRepository,
+            EmailService emailService,
+            MeterRegistry meterRegistry,
+            @Value("${email.outbox.batch-size:100}") int batchSize,
+            @Value("${email.outbox.lease-ms:60000}") long leaseMs,
+            @Value("${email.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${email.outbox.retry-backoff-ms:30000}") long retryBackoffMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.sentCounter = Counter.builder("email.outbox.sent")
+                .description("Outbox mails sent")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed")
+                .description("Outbox mail attempts that failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        Instant now = Instant.now();
+        List<Entry> entries = transactionTemplate.execute(status -> jdbcTemplate.query(LEASE_SQL,
+                (rs, rowNum) -> new Entry(rs.getString("id"), rs.getString("user_id"),
+                        EmailOutboxType.valueOf(rs.getString("type")), rs.getInt("attempts")),
+                Timestamp.from(now.plusMillis(leaseMs)), OutboxStatus.PENDING.name(), Timestamp.from(now), batchSize));
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        for (Entry entry : entries) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> send(entry));
+                sentCounter.increment();
+            } catch (RuntimeException ex) {
+                failedCounter.increment();
+                log.warn("Outbox mail {} failed (attempt {})", entry.id(), entry.attempts() + 1, ex);
+                scheduleRetry(entry, ex);
+            }
+        }
+        log.debug("Dispatched {} outbox mails", entries.size());
+    }
+
+    private void send(Entry entry) {
+        Optional<User> user = userRepository.findById(entry.userId());
+        if (user.isEmpty()) {
+            throw new IllegalStateException("User " + entry.userId() + " no longer exists");
+        }
+        switch (entry.type()) {
+            case CONFIRMATION -> emailService.deliverConfirmationEmail(user.get());
+        }
+        jdbcTemplate.update(SENT_SQL, OutboxStatus.SENT.name(), Timestamp.from(Instant.now()), entry.id());
+    }
+
+    private void scheduleRetry(Entry entry, RuntimeException ex) {
+        int attempts = entry.attempts() + 1;
+        OutboxStatus status = attempts >= maxAttempts ? OutboxStatus.FAILED : OutboxStatus.PENDING;
+        Instant now = Instant.now();
+        Instant nextAttempt = now.plusMillis(retryBackoffMs << Math.min(attempts - 1, 10));
+        String error = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+        try {
+            jdbcTemplate.update(RETRY_SQL, status.name(), attempts, Timestamp.from(nextAttempt),
+                    error.length() > 255 ? error.substring(0, 255) : error, Timestamp.from(now), entry.id());
+        } catch (RuntimeException updateEx) {
+            log.error("Could not record failure of outbox mail {}; it is retried when its lease expires",
+                    entry.id(), updateEx);
+        }
+    }
+
+    private record Entry(String id, String userId, EmailOutboxType type, int attempts) {
+    }
+}
@@ -2,10 +2,17 @@ package com.unipay.service.mail;
 
 import com.unipay.models.User;
 import com.unipay.response.EmailConfirmationResponse;
-import jakarta.servlet.http.HttpServletRequest;
+import com.unipay.security.fingerprint.RequestFingerprint;
 
 public interface EmailService {
     EmailConfirmationResponse confirmRegistration(String confirmationToken);
     void sendConfirmationEmail(User user);
-    void sendNewLoginDetected(String toEmail, String username, String deviceId, HttpServletRequest request);
+
+    /**
+     * Creates a confirmation token and sends the confirmation mail on the calling thread.
+     *
+     * @throws org.springframework.mail.MailException if the mail could not be built or sent
+     */
+    void deliverConfirmationEmail(User user);
+    void sendNewLoginDetected(String toEmail, String username, RequestFingerprint fingerprint);
 }
@@ -11,12 +11,13 @@ import com.unipay.repository.UserRepository;
 import com.unipay.response.EmailConfirmationResponse;
 import com.unipay.response.EmailConfirmationResponseFailed;
 import com.unipay.response.EmailConfirmationResponseSuccess;
+import com.unipay.security.fingerprint.RequestFingerprint;
 import com.unipay.utils.EmailContentBuilder;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -42,19 +43,35 @@ public class EmailServiceImp implements EmailService {
         sendConfirmationEmailAsync(user, token);
     }
 
+    @Override
+    @Transactional
+    public void deliverConfirmationEmail(User user) {
+        ConfirmationToken token = ConfirmationToken.create(user);
+        confirmationTokenRepository.save(token);
+        sendConfirmation(user, token);
+    }
+
     @Async
     public void sendConfirmationEmailAsync(User user, ConfirmationToken token) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
+            sendConfirmation(user, token);
+        } catch (Exception e) {
+            log.error("Failed to send confirmation email", e);
+        }
+    }
+
+    private void sendConfirmation(User user, ConfirmationToken token) {
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             helper.setTo(user.getEmail());
             helper.setSubject("Confirm Your Account");
             helper.setText(emailContentBuilder.buildEmailContent(user, token), true);
-            mailSender.send(message);
-            log.info("Confirmation email sent to {}", user.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send confirmation email", e);
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Could not build confirmation email", e);
         }
+        mailSender.send(message);
+        log.info("Confirmation email sent to {}", user.getEmail());
     }
 
     @Override
@@ -83,11 +100,10 @@ public class EmailServiceImp implements EmailService {
     }
 
     @Override
-    public void sendNewLoginDetected(String toEmail, String username, String deviceId, HttpServletRequest request) {
-        String ipAddress = request.getRemoteAddr();
-        String userAgent = request.getHeader("User-Agent");
+    public void sendNewLoginDetected(String toEmail, String username, RequestFingerprint fingerprint) {
         String subject = "New login from a new device";
-        String body = emailContentBuilder.buildNewDeviceLoginEmail(username, deviceId, ipAddress, userAgent);
+        String body = emailContentBuilder.buildNewDeviceLoginEmail(username, fingerprint.device().displayName(),
+                fingerprint.clientIp(), fingerprint.userAgent());
         sendEmailAsync(toEmail, subject, body);
     }
 
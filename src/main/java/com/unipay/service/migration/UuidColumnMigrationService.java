@@ -0,0 +1,119 @@
+package com.unipay.service.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Converts identifier columns of a schema created before IDs were mapped to native {@code uuid} columns.
+ *
+ * <p>Every {@code varchar} column that is part of a primary or foreign key in the current schema is
+ * altered to {@code uuid}. Foreign keys cannot span the two types, so in one transaction the affected
+ * foreign keys are dropped, all columns are converted with {@code USING column::uuid}, and the foreign keys
+ * are recreated from their saved definitions; the primary key and other indexes are rebuilt by PostgreSQL
+ * as part of the type change. If a stored ID is not a valid UUID the cast fails, the transaction rolls
+ * back and the schema is left as it was. Existing IDs keep their value; only rows inserted afterwards get
+ * time-ordered UUIDv7 keys.</p>
+ *
+ * <p>The catalog lookup finds nothing on a schema that is already converted, so the service is a no-op
+ * after the first successful run. It holds a transaction-scoped advisory lock, so only one node migrates.
+ * Enabled with {@code uuid-migration.enabled=true}. It runs while the context starts, before the entity
+ * manager factory is created (see {@link com.unipay.config.UuidMigrationConfig}) and so before any request
+ * is served. It works on the data source directly, since the JPA transaction manager does not exist yet.
+ * A failed migration fails startup: the application cannot use a schema whose keys were not converted.
+ * The type changes rewrite the tables under {@code ACCESS EXCLUSIVE} locks, so run it during a maintenance
+ * window, with other nodes stopped.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "uuid-migration.enabled", havingValue = "true")
+public class UuidColumnMigrationService implements InitializingBean {
+
+    private static final long ADVISORY_LOCK_KEY = 0x756e6970617976L;
+
+    private static final String KEY_COLUMNS_SQL =
+            "SELECT DISTINCT con.conrelid::regclass::text AS table_name, quote_ident(a.attname) AS column_name " +
+            "FROM pg_constraint con " +
+            "JOIN pg_class c ON c.oid = con.conrelid " +
+            "JOIN pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = ANY (con.conkey) " +
+            "WHERE con.contype IN ('p', 'f') AND con.connamespace = current_schema()::regnamespace " +
+            "AND NOT c.relispartition AND a.atttypid = 'character varying'::regtype";
+
+    private static final String FOREIGN_KEYS_SQL =
+            "SELECT con.conrelid::regclass::text AS table_name, quote_ident(con.conname) AS constraint_name, " +
+            "pg_get_constraintdef(con.oid) AS definition " +
+            "FROM pg_constraint con " +
+            "WHERE con.contype = 'f' AND con.conparentid = 0 AND con.connamespace = current_schema()::regnamespace " +
+            "AND EXISTS (SELECT 1 FROM pg_attribute a WHERE a.attrelid = con.conrelid " +
+            "AND a.attnum = ANY (con.conkey) AND a.atttypid = 'character varying'::regtype)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public UuidColumnMigrationService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    public void migrate() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                        ADVISORY_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("UUID column migration running elsewhere, skipping");
+                    return;
+                }
+                convert();
+            });
+        } catch (RuntimeException ex) {
+            log.error("UUID column migration failed, identifier columns left unchanged", ex);
+            throw ex;
+        }
+    }
+
+    private void convert() {
+        Map<String, List<String>> columnsByTable = jdbcTemplate.query(KEY_COLUMNS_SQL, (rs, rowNum) ->
+                        Map.entry(rs.getString("table_name"), rs.getString("column_name")))
+                .stream()
+                .collect(Collectors.groupingBy(Map.Entry::getKey, LinkedHashMap::new,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        if (columnsByTable.isEmpty()) {
+            return;
+        }
+        List<ForeignKey> foreignKeys = jdbcTemplate.query(FOREIGN_KEYS_SQL, (rs, rowNum) -> new ForeignKey(
+                rs.getString("table_name"), rs.getString("constraint_name"), rs.getString("definition")));
+        log.info("Converting {} identifier columns in {} tables to uuid",
+                columnsByTable.values().stream().mapToInt(List::size).sum(), columnsByTable.size());
+
+        for (ForeignKey foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + foreignKey.table() + " DROP CONSTRAINT " + foreignKey.name());
+        }
+        columnsByTable.forEach((table, columns) -> jdbcTemplate.execute("ALTER TABLE " + table + " " + columns.stream()
+                .map(column -> "ALTER COLUMN " + column + " TYPE uuid USING " + column + "::uuid")
+                .collect(Collectors.joining(", "))));
+        for (ForeignKey foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + foreignKey.table() + " ADD CONSTRAINT " + foreignKey.name()
+                    + " " + foreignKey.definition());
+        }
+        log.info("Identifier columns converted to uuid");
+    }
+
+    private record ForeignKey(String table, String name, String definition) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.unipay.service.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps {@code audit_logs} and {@code login_history} range-partitioned by month.
+ *
+ * <p>On startup a plain table (as created by Hibernate) is converted in one transaction: it is renamed,
+ * a partitioned table with the same columns and a {@code (id, timestamp)} primary key takes its place,
+ * monthly partitions covering the existing rows are created, the rows are copied and the old table is
+ * dropped. The {@code (user_id, timestamp, id)} index is declared on the parent, so every partition gets
+ * a local copy.</p>
+ *
+ * <p>The maintenance job ({@code partitioning.cron}) then creates partitions
+ * {@code partitioning.months-ahead} months in advance, and detaches or drops partitions older than the
+ * table's retention, depending on {@code partitioning.expired-action}. Detached partitions remain as
+ * standalone tables for archiving. Each run holds a transaction-scoped advisory lock, so only one node
+ * does the work.</p>
+ *
+ * <p>Enabled with {@code partitioning.enabled=true}; requires PostgreSQL 11 or later.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "partitioning.enabled", havingValue = "true")
+public class PartitionMaintenanceService {
+
+    private static final long ADVISORY_LOCK_KEY = 0x756e6970617970L;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<PartitionedTable> tables;
+    private final int monthsAhead;
+    private final boolean dropExpired;
+
+    public PartitionMaintenanceService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${partitioning.months-ahead:3}") int monthsAhead,
+            @Value("${partitioning.expired-action:DETACH}") String expiredAction,
+            @Value("${partitioning.retention.audit-logs-months:24}") int auditLogsRetention,
+            @Value("${partitioning.retention.login-history-months:12}") int loginHistoryRetention
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.dropExpired = "DROP".equalsIgnoreCase(expiredAction);
+        this.tables = List.of(
+                new PartitionedTable("audit_logs", "timestamp", "idx_audit_log_user_timestamp", auditLogsRetention),
+                new PartitionedTable("login_history", "login_timestamp", "idx_login_history_user_timestamp", loginHistoryRetention));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${partitioning.cron:0 0 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (PartitionedTable table : tables) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                            ADVISORY_LOCK_KEY);
+                    if (!Boolean.TRUE.equals(locked)) {
+                        log.debug("Partition maintenance for {} running elsewhere, skipping", table.name());
+                        return;
+                    }
+                    if (!isPartitioned(table)) {
+                        convert(table, current);
+                    }
+                    createPartitions(table, current, current.plusMonths(monthsAhead));
+                    expirePartitions(table, current.minusMonths(table.retentionMonths()));
+                });
+            } catch (RuntimeException ex) {
+                log.error("Partition maintenance failed for {}", table.name(), ex);
+            }
+        }
+    }
+
+    private boolean isPartitioned(PartitionedTable table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)", String.class, table.name());
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    private void convert(PartitionedTable table, YearMonth current) {
+        String name = table.name();
+        String column = table.partitionColumn();
+        String legacy = name + "_unpartitioned";
+        log.info("Converting {} to a monthly partitioned table", name);
+
+        jdbcTemplate.execute("UPDATE " + name + " SET " + column + " = COALESCE(created_at, now()) WHERE " + column + " IS NULL");
+        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + legacy);
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + legacy + " INCLUDING DEFAULTS) PARTITION BY RANGE (" + column + ")");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(" + column + ") FROM " + legacy, Timestamp.class);
+        YearMonth from = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : current;
+        createPartitions(table, from.isBefore(current) ? from : current, current.plusMonths(monthsAhead));
+
+        jdbcTemplate.execute("INSERT INTO " + name + " SELECT * FROM " + legacy);
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+        jdbcTemplate.execute("ALTER TABLE " + name + " ADD PRIMARY KEY (id, " + column + ")");
+        jdbcTemplate.execute("ALTER TABLE " + name + " ADD FOREIGN KEY (user_id) REFERENCES users (id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + table.indexName() + " ON " + name + " (user_id, " + column + ", id)");
+    }
+
+    private void createPartitions(PartitionedTable table, YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            LocalDate start = month.atDay(1);
+            LocalDate end = month.plusMonths(1).atDay(1);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month) + " PARTITION OF " + table.name()
+                    + " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+        }
+    }
+
+    private void expirePartitions(PartitionedTable table, YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)", String.class, table.name());
+        String prefix = table.name() + "_p";
+        for (String partition : partitions) {
+            if (!partition.startsWith(prefix)) {
+                continue;
+            }
+            YearMonth month;
+            try {
+                month = YearMonth.parse(partition.substring(table.name().length()), SUFFIX);
+            } catch (RuntimeException ex) {
+                continue;
+            }
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + partition);
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired partition {}", partition);
+            } else {
+                log.info("Detached expired partition {}", partition);
+            }
+        }
+    }
+
+    private String partitionName(PartitionedTable table, YearMonth month) {
+        return table.name() + month.format(SUFFIX);
+    }
+}
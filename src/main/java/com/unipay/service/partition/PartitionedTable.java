@@ -0,0 +1,17 @@
+package com.unipay.service.partition;
+
+/**
+ * A table kept range-partitioned by month by the {@link PartitionMaintenanceService}.
+ *
+ * @param name             the parent table name
+ * @param partitionColumn  the timestamp column partitions are ranged on
+ * @param indexName        the {@code (user_id, partitionColumn, id)} index, created on the parent and so on every partition
+ * @param retentionMonths  whole months kept before the current one; older partitions are expired
+ */
+public record PartitionedTable(
+        String name,
+        String partitionColumn,
+        String indexName,
+        int retentionMonths
+) {
+}
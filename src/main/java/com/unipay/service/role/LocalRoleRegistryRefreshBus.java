@@ -0,0 +1,22 @@
+package com.unipay.service.role;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-JVM {@link RoleRegistryRefreshBus}; suitable for single-node deployments.
+ */
+public class LocalRoleRegistryRefreshBus implements RoleRegistryRefreshBus {
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publishRefresh() {
+        listeners.forEach(Runnable::run);
+    }
+
+    @Override
+    public void subscribe(Runnable listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,41 @@
+package com.unipay.service.role;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * {@link RoleRegistryRefreshBus} backed by Redis pub/sub so a role change on one node
+ * reloads the registry on every node.
+ */
+@Slf4j
+public class RedisRoleRegistryRefreshBus implements RoleRegistryRefreshBus {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChannelTopic topic;
+    private final LocalRoleRegistryRefreshBus localBus = new LocalRoleRegistryRefreshBus();
+
+    public RedisRoleRegistryRefreshBus(StringRedisTemplate redisTemplate,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       String channel) {
+        this.redisTemplate = redisTemplate;
+        this.topic = new ChannelTopic(channel);
+        listenerContainer.addMessageListener((message, pattern) -> localBus.publishRefresh(), topic);
+    }
+
+    @Override
+    public void publishRefresh() {
+        localBus.publishRefresh();
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), "refresh");
+        } catch (RuntimeException ex) {
+            log.error("Failed to broadcast role registry refresh", ex);
+        }
+    }
+
+    @Override
+    public void subscribe(Runnable listener) {
+        localBus.subscribe(listener);
+    }
+}
@@ -0,0 +1,39 @@
+package com.unipay.service.role;
+
+import com.unipay.constants.CacheRegions;
+import com.unipay.models.Permission;
+import com.unipay.models.Role;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the second-level cache regions holding roles, permissions and role permissions whenever the
+ * {@link RoleRegistryRefreshBus} announces a role change.
+ *
+ * <p>Hibernate already keeps these regions consistent on the node that made the change. The other nodes
+ * only learn about it through the bus; with {@code role.registry.broadcast=redis} they drop their cached
+ * copies and their {@link CacheRegions#REFERENCE_QUERIES} query results, and reload them on the next
+ * lookup.</p>
+ */
+@Slf4j
+@Component
+public class ReferenceDataCacheEvictor {
+
+    private final Cache cache;
+
+    public ReferenceDataCacheEvictor(EntityManagerFactory entityManagerFactory, RoleRegistryRefreshBus refreshBus) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        refreshBus.subscribe(this::evict);
+    }
+
+    public void evict() {
+        cache.evictEntityData(Role.class);
+        cache.evictEntityData(Permission.class);
+        cache.evictCollectionData(Role.class.getName() + ".permissions");
+        cache.evictQueryRegion(CacheRegions.REFERENCE_QUERIES);
+        log.debug("Evicted role and permission second-level cache regions");
+    }
+}
@@ -0,0 +1,113 @@
+package com.unipay.service.role;
+
+import com.unipay.enums.PermissionName;
+import com.unipay.enums.RoleName;
+import com.unipay.payload.AuthoritySet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable in-memory view of which permissions each role grants.
+ *
+ * <p>Loaded from the {@code roles}, {@code permissions} and {@code role_permissions} tables once the
+ * application is ready, and swapped atomically whenever {@link RoleService#updateRole} commits
+ * (locally and, through the {@link RoleRegistryRefreshBus}, on other nodes). Principals can then be
+ * built from a user's role IDs alone, with no permissions join on the request path.</p>
+ */
+@Slf4j
+@Component
+public class RolePermissionRegistry {
+
+    private static final String LOAD_SQL =
+            "SELECT r.id AS role_id, r.name AS role_name, p.name AS permission_name FROM roles r " +
+            "LEFT JOIN role_permissions rp ON rp.role_id = r.id " +
+            "LEFT JOIN permissions p ON p.id = rp.permission_id " +
+            "WHERE r.is_deleted = false";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleRegistryRefreshBus refreshBus;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public RolePermissionRegistry(JdbcTemplate jdbcTemplate, RoleRegistryRefreshBus refreshBus) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshBus = refreshBus;
+        refreshBus.subscribe(this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the registry from the database and swaps it in atomically.
+     */
+    public void reload() {
+        Map<String, RoleName> roleNamesById = new HashMap<>();
+        Map<RoleName, Set<PermissionName>> permissionsByRole = new EnumMap<>(RoleName.class);
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            RoleName role = RoleName.valueOf(rs.getString("role_name"));
+            roleNamesById.put(rs.getString("role_id"), role);
+            Set<PermissionName> permissions = permissionsByRole.computeIfAbsent(role, r -> EnumSet.noneOf(PermissionName.class));
+            String permission = rs.getString("permission_name");
+            if (permission != null) {
+                permissions.add(PermissionName.valueOf(permission));
+            }
+        });
+
+        Map<String, AuthoritySet> authoritiesByRoleId = new HashMap<>();
+        roleNamesById.forEach((id, role) -> authoritiesByRoleId.put(id,
+                AuthoritySet.of(EnumSet.of(role), permissionsByRole.getOrDefault(role, Set.of()))));
+        snapshot.set(new Snapshot(Map.copyOf(authoritiesByRoleId)));
+        log.info("Role permission registry loaded: {} roles", authoritiesByRoleId.size());
+    }
+
+    /**
+     * Reloads on this node and asks every other node to do the same.
+     */
+    public void refreshEverywhere() {
+        refreshBus.publishRefresh();
+    }
+
+    /**
+     * Resolves the combined roles and permissions granted by the given role IDs; unknown IDs are ignored.
+     */
+    public AuthoritySet resolve(Collection<String> roleIds) {
+        Map<String, AuthoritySet> authorities = current().authoritiesByRoleId();
+        AuthoritySet result = AuthoritySet.EMPTY;
+        for (String roleId : roleIds) {
+            AuthoritySet granted = authorities.get(roleId);
+            if (granted != null) {
+                result = result.union(granted);
+            }
+        }
+        return result;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot.get() == null) {
+                    reload();
+                }
+            }
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private record Snapshot(Map<String, AuthoritySet> authoritiesByRoleId) {
+    }
+}
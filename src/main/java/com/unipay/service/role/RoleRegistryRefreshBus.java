@@ -0,0 +1,15 @@
+package com.unipay.service.role;
+
+/**
+ * Tells every application node to reload its {@link RolePermissionRegistry}
+ * after role definitions change.
+ */
+public interface RoleRegistryRefreshBus {
+
+    /**
+     * Notifies every subscriber, including those on the local node.
+     */
+    void publishRefresh();
+
+    void subscribe(Runnable listener);
+}
@@ -16,6 +16,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -28,6 +30,7 @@ public class RoleServiceImpl implements RoleService{
     private final RoleRepository roleRepository;
     private final UserRoleRepository userRoleRepository;
     private final PermissionRepository permissionRepository;
+    private final RolePermissionRegistry rolePermissionRegistry;
 
     /**
      * Assigns a role to the user.
@@ -45,7 +48,7 @@ public class RoleServiceImpl implements RoleService{
                 );
         UserRole userRole = UserRole.create(user, role);
         userRoleRepository.save(userRole);
-        user.getUserRoles().add(userRole);
+        user.addUserRole(userRole);
     }
     /**
      * Updates an existing role's description and/or permissions.
@@ -74,6 +77,20 @@ public class RoleServiceImpl implements RoleService{
             role.setPermissions(permissions);
         }
         roleRepository.save(role);
+        refreshRegistryAfterCommit();
+    }
+
+    private void refreshRegistryAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rolePermissionRegistry.refreshEverywhere();
+                }
+            });
+        } else {
+            rolePermissionRegistry.refreshEverywhere();
+        }
     }
 
 }
@@ -0,0 +1,103 @@
+package com.unipay.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Creates the indexes behind the user search on {@code users}.
+ *
+ * <p>For each of {@code username} and {@code email} there are two expression indexes over
+ * {@code lower(column)}. A {@code pg_trgm} GIN index serves substring matches
+ * ({@code LIKE '%term%'}), and a {@code text_pattern_ops} B-tree serves prefix matches
+ * ({@code LIKE 'term%'}), which trigrams handle poorly for terms shorter than three characters. Both
+ * {@link com.unipay.utils.UserSpecification} and {@link com.unipay.utils.UserSearchSpecification}
+ * filter on exactly these expressions.</p>
+ *
+ * <p>The indexes are built with {@code CREATE INDEX CONCURRENTLY} on one autocommit connection, so writes
+ * to {@code users} are not blocked while a large table is indexed. A concurrent build that failed leaves
+ * an invalid index behind; it is dropped and rebuilt. A session-level advisory lock keeps other nodes from
+ * building at the same time. Enabled with {@code user-search.indexes.enabled=true}. The role needs
+ * permission to create the {@code pg_trgm} extension, unless it is already installed. If the indexes are
+ * missing, searches still return correct results but scan the table.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "user-search.indexes.enabled", havingValue = "true")
+public class UserSearchIndexService {
+
+    private static final long ADVISORY_LOCK_KEY = 0x756e6970617973L;
+
+    private static final List<SearchIndex> INDEXES = List.of(
+            new SearchIndex("idx_users_username_trgm", "USING gin (lower(username) gin_trgm_ops)"),
+            new SearchIndex("idx_users_email_trgm", "USING gin (lower(email) gin_trgm_ops)"),
+            new SearchIndex("idx_users_username_prefix", "(lower(username) text_pattern_ops)"),
+            new SearchIndex("idx_users_email_prefix", "(lower(email) text_pattern_ops)"));
+
+    private static final String INVALID_INDEX_SQL =
+            "SELECT 1 FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+            "WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace AND NOT i.indisvalid";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserSearchIndexService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!connection.getAutoCommit()) {
+                    connection.setAutoCommit(true);
+                }
+                try (Statement statement = connection.createStatement()) {
+                    ResultSet locked = statement.executeQuery("SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")");
+                    if (!locked.next() || !locked.getBoolean(1)) {
+                        log.debug("User search indexes being built elsewhere, skipping");
+                        return null;
+                    }
+                    try {
+                        statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                        for (SearchIndex index : INDEXES) {
+                            build(connection, statement, index);
+                        }
+                    } finally {
+                        statement.execute("SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            log.error("Could not create user search indexes; user searches will scan the table", ex);
+        }
+    }
+
+    private void build(Connection connection, Statement statement, SearchIndex index) throws SQLException {
+        try (PreparedStatement invalid = connection.prepareStatement(INVALID_INDEX_SQL)) {
+            invalid.setString(1, index.name());
+            try (ResultSet rs = invalid.executeQuery()) {
+                if (rs.next()) {
+                    log.warn("Dropping invalid index {} left by an interrupted build", index.name());
+                    statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+                }
+            }
+        }
+        statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() + " ON users " + index.definition());
+        log.debug("User search index {} ready", index.name());
+    }
+
+    private record SearchIndex(String name, String definition) {
+    }
+}
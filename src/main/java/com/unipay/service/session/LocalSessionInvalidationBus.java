@@ -0,0 +1,23 @@
+package com.unipay.service.session;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM {@link SessionInvalidationBus}; suitable for single-node deployments.
+ */
+public class LocalSessionInvalidationBus implements SessionInvalidationBus {
+
+    private final List<Consumer<SessionInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(SessionInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<SessionInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,56 @@
+package com.unipay.service.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * {@link SessionInvalidationBus} backed by Redis pub/sub so revocations on one node
+ * evict cached session state on every node.
+ *
+ * <p>Local listeners are notified immediately on publish, then again when the message
+ * comes back from Redis; eviction is idempotent so the echo is harmless.</p>
+ */
+@Slf4j
+public class RedisSessionInvalidationBus implements SessionInvalidationBus {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private final LocalSessionInvalidationBus localBus = new LocalSessionInvalidationBus();
+
+    public RedisSessionInvalidationBus(StringRedisTemplate redisTemplate,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+        this.listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                localBus.publish(SessionInvalidation.decode(body));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring malformed session invalidation: {}", body);
+            }
+        }, topic);
+    }
+
+    @Override
+    public void publish(SessionInvalidation invalidation) {
+        localBus.publish(invalidation);
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), invalidation.encode());
+        } catch (RuntimeException ex) {
+            log.error("Failed to broadcast session invalidation {}", invalidation, ex);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<SessionInvalidation> listener) {
+        localBus.subscribe(listener);
+    }
+}
@@ -0,0 +1,355 @@
+package com.unipay.service.session;
+
+import com.unipay.models.User;
+import com.unipay.models.UserSession;
+import com.unipay.repository.UserRepository;
+import com.unipay.utils.UuidV7;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+
+/**
+ * {@link UserSessionService} that keeps active sessions in Redis instead of the {@code user_sessions} table.
+ *
+ * <p>Each session is a hash at {@code unipay:session:{id}} whose native TTL is the session's
+ * {@code expiresAt}; each user has a set of session IDs at {@code unipay:user-sessions:{userId}}, so
+ * listing and revoking a user's sessions costs O(sessions-per-user). Revocation deletes the hash,
+ * so a missing hash means the session is expired or revoked. Postgres only receives an
+ * asynchronous audit copy through {@link SessionAuditWriter}.</p>
+ *
+ * <p>A session started by {@link #findOrCreateSession} is also pointed to from
+ * {@code unipay:device-session:{userId}:{deviceId}}, which lives as long as the session. The lookup and the
+ * creation run in one Lua script, so concurrent logins from one device share a session. A pointer whose
+ * session hash is gone (revoked or expired) counts as absent and is replaced by the next login.</p>
+ *
+ * <p>Enabled with {@code session.store=redis}.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "session.store", havingValue = "redis")
+public class RedisUserSessionServiceImpl implements UserSessionService {
+
+    private static final Duration SESSION_REFRESH_THRESHOLD = Duration.ofMinutes(15);
+    private static final Duration SESSION_REFRESH_EXTENSION = Duration.ofMillis(800000);
+
+    private static final String SESSION_KEY = "unipay:session:";
+    private static final String USER_SESSIONS_KEY = "unipay:user-sessions:";
+    private static final String DEVICE_SESSION_KEY = "unipay:device-session:";
+
+    private static final String USER_ID = "userId";
+    private static final String DEVICE_ID = "deviceId";
+    private static final String IP_ADDRESS = "ipAddress";
+    private static final String USER_AGENT = "userAgent";
+    private static final String EXPIRES_AT = "expiresAt";
+    private static final String CREATED_AT = "createdAt";
+
+    /**
+     * Writes the session hash, sets its TTL, indexes it under the user and extends the
+     * user's set TTL if this session outlives it. ARGV: expiresAt (epoch ms), sessionId,
+     * ttl (ms), then field/value pairs.
+     */
+    private static final RedisScript<Long> CREATE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 4, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "redis.call('PEXPIREAT', KEYS[1], ARGV[1]) " +
+            "redis.call('SADD', KEYS[2], ARGV[2]) " +
+            "if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[3]) then redis.call('PEXPIREAT', KEYS[2], ARGV[1]) end " +
+            "return 1",
+            Long.class);
+
+    /**
+     * Returns the session the device pointer refers to while its hash exists; otherwise writes a new session
+     * as {@link #CREATE_SCRIPT} does and points the device at it. ARGV: session key prefix, sessionId,
+     * expiresAt (epoch ms), ttl (ms), then field/value pairs. Returns the session ID and its expiresAt.
+     */
+    private static final RedisScript<List> FIND_OR_CREATE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if current then " +
+            "  local expiresAt = redis.call('HGET', ARGV[1] .. current, 'expiresAt') " +
+            "  if expiresAt then return {current, expiresAt} end " +
+            "end " +
+            "for i = 5, #ARGV, 2 do redis.call('HSET', KEYS[3], ARGV[i], ARGV[i + 1]) end " +
+            "redis.call('PEXPIREAT', KEYS[3], ARGV[3]) " +
+            "redis.call('SET', KEYS[1], ARGV[2]) " +
+            "redis.call('PEXPIREAT', KEYS[1], ARGV[3]) " +
+            "redis.call('SADD', KEYS[2], ARGV[2]) " +
+            "if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[4]) then redis.call('PEXPIREAT', KEYS[2], ARGV[3]) end " +
+            "return {ARGV[2], ARGV[3]}",
+            List.class);
+
+    /**
+     * Extends an existing session, its user's set and the device pointer if it still refers to the session.
+     * ARGV: expiresAt (epoch ms), ttl (ms), device key prefix of the user, sessionId.
+     */
+    private static final RedisScript<Long> REFRESH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'expiresAt', ARGV[1]) " +
+            "redis.call('PEXPIREAT', KEYS[1], ARGV[1]) " +
+            "if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[2]) then redis.call('PEXPIREAT', KEYS[2], ARGV[1]) end " +
+            "local deviceId = redis.call('HGET', KEYS[1], 'deviceId') " +
+            "if deviceId and redis.call('GET', ARGV[3] .. deviceId) == ARGV[4] then " +
+            "  redis.call('PEXPIREAT', ARGV[3] .. deviceId, ARGV[1]) " +
+            "end " +
+            "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SessionValidityCache sessionValidityCache;
+    private final SessionAuditWriter sessionAuditWriter;
+    private final UserRepository userRepository;
+
+    @Override
+    public UserSession createSession(User user, String deviceId, String ipAddress, String userAgent, Instant expiresAt) {
+        UserSession session = UserSession.create(user, deviceId, ipAddress, userAgent);
+        session.setId(UuidV7.randomString());
+        session.setExpiresAt(expiresAt);
+        session.setCreatedAt(LocalDateTime.now());
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(expiresAt.toEpochMilli()));
+        args.add(session.getId());
+        args.add(String.valueOf(Duration.between(Instant.now(), expiresAt).toMillis()));
+        addField(args, USER_ID, user.getId());
+        addField(args, DEVICE_ID, deviceId);
+        addField(args, IP_ADDRESS, ipAddress);
+        addField(args, USER_AGENT, userAgent);
+        addField(args, EXPIRES_AT, String.valueOf(expiresAt.toEpochMilli()));
+        addField(args, CREATED_AT, String.valueOf(Instant.now().toEpochMilli()));
+
+        redisTemplate.execute(CREATE_SCRIPT,
+                List.of(sessionKey(session.getId()), userSessionsKey(user.getId())),
+                args.toArray());
+        sessionAuditWriter.recordCreated(session.getId(), user.getId(), deviceId, ipAddress, userAgent, expiresAt);
+        return session;
+    }
+
+    @Override
+    public List<UserSession> getActiveSessions(User user) {
+        List<String> sessionIds = new ArrayList<>(members(user.getId()));
+        if (sessionIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            sessionIds.forEach(id -> connection.hashCommands().hGetAll(bytes(sessionKey(id))));
+            return null;
+        });
+
+        Instant now = Instant.now();
+        List<UserSession> sessions = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        for (int i = 0; i < sessionIds.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> hash = (Map<String, String>) hashes.get(i);
+            UserSession session = toSession(user, sessionIds.get(i), hash);
+            if (session == null || !session.getExpiresAt().isAfter(now)) {
+                stale.add(sessionIds.get(i));
+            } else {
+                sessions.add(session);
+            }
+        }
+        if (!stale.isEmpty()) {
+            redisTemplate.opsForSet().remove(userSessionsKey(user.getId()), stale.toArray());
+        }
+        return sessions;
+    }
+
+    /**
+     * Validates a session by ID. If still valid, extends its expiration in Redis.
+     *
+     * @param sessionId the session ID
+     * @return the up‐to‐date session state, or null if invalid/expired/revoked
+     */
+    @Override
+    public SessionValidity validateAndRefreshSession(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) return null;
+
+        Instant now = Instant.now();
+        SessionValidity validity = sessionValidityCache.get(sessionId);
+        if (validity == null || (!validity.revoked() && !validity.isValid(now))) {
+            List<Object> fields = redisTemplate.opsForHash().multiGet(sessionKey(sessionId), List.of(USER_ID, EXPIRES_AT));
+            if (fields.get(0) == null || fields.get(1) == null) {
+                log.warn("Invalid session: {}", sessionId);
+                return null;
+            }
+            validity = new SessionValidity(sessionId, (String) fields.get(0), false,
+                    Instant.ofEpochMilli(Long.parseLong((String) fields.get(1))));
+            sessionValidityCache.put(validity);
+        }
+
+        if (!validity.isValid(now)) {
+            log.warn("Invalid session: {}", sessionId);
+            return null;
+        }
+
+        if (Duration.between(now, validity.expiresAt()).compareTo(SESSION_REFRESH_THRESHOLD) < 0) {
+            Instant expiresAt = now.plus(SESSION_REFRESH_EXTENSION);
+            Long refreshed = redisTemplate.execute(REFRESH_SCRIPT,
+                    List.of(sessionKey(sessionId), userSessionsKey(validity.userId())),
+                    String.valueOf(expiresAt.toEpochMilli()),
+                    String.valueOf(SESSION_REFRESH_EXTENSION.toMillis()),
+                    deviceSessionPrefix(validity.userId()),
+                    sessionId);
+            if (refreshed == null || refreshed == 0L) {
+                log.warn("Invalid session: {}", sessionId);
+                return null;
+            }
+            validity = validity.withExpiresAt(expiresAt);
+            sessionValidityCache.put(validity);
+            log.debug("Refreshed session expiration: {}", sessionId);
+        }
+
+        return validity;
+    }
+
+    @Override
+    public void revokeSession(String sessionId) {
+        Object userId = redisTemplate.opsForHash().get(sessionKey(sessionId), USER_ID);
+        redisTemplate.delete(sessionKey(sessionId));
+        if (userId != null) {
+            redisTemplate.opsForSet().remove(userSessionsKey((String) userId), sessionId);
+        }
+        sessionValidityCache.invalidate(SessionInvalidation.forSession(sessionId));
+        sessionAuditWriter.recordRevoked(sessionId);
+        log.info("Revoked session: {}", sessionId);
+    }
+
+    @Override
+    public void revokeAllSessions(User user) {
+        Set<String> sessionIds = members(user.getId());
+        List<String> keys = new ArrayList<>(sessionIds.size() + 1);
+        sessionIds.forEach(id -> keys.add(sessionKey(id)));
+        keys.add(userSessionsKey(user.getId()));
+        redisTemplate.delete(keys);
+        sessionValidityCache.invalidate(SessionInvalidation.forUser(user.getId()));
+        sessionAuditWriter.recordAllRevoked(user.getId());
+        log.info("Revoked all sessions for user: {}", user.getEmail());
+    }
+
+    @Override
+    public void revokeOtherSessions(User currentUser, String currentSessionId) {
+        List<String> others = members(currentUser.getId()).stream()
+                .filter(id -> !id.equals(currentSessionId))
+                .toList();
+        if (!others.isEmpty()) {
+            redisTemplate.delete(others.stream().map(this::sessionKey).toList());
+            redisTemplate.opsForSet().remove(userSessionsKey(currentUser.getId()), others.toArray());
+        }
+        sessionValidityCache.invalidate(SessionInvalidation.forUser(currentUser.getId()));
+        sessionAuditWriter.recordOthersRevoked(currentUser.getId(), currentSessionId);
+        log.info("Revoked other sessions for user: {}", currentUser.getEmail());
+    }
+
+    /**
+     * Expired session hashes are dropped by Redis itself; this only prunes their IDs from the user's set.
+     */
+    @Override
+    public void revokeExpiredSessions(User user) {
+        getActiveSessions(user);
+    }
+
+    @Override
+    public boolean hasActiveSessionForDevice(User user, String deviceId) {
+        return findActiveByUserAndDevice(user, deviceId, Instant.now()).isPresent();
+    }
+
+    @Override
+    public Optional<UserSession> findActiveByUserAndDevice(User user, String deviceId, Instant now) {
+        return getActiveSessions(user).stream()
+                .filter(session -> deviceId != null && deviceId.equals(session.getDeviceId()))
+                .filter(session -> session.getExpiresAt().isAfter(now))
+                .findFirst();
+    }
+
+    /**
+     * Looks up and, if needed, creates the device's session in one script, so two simultaneous first logins
+     * from one device end up sharing a session. Without a device ID there is nothing to share a session on
+     * and a new one is always started.
+     */
+    @Override
+    public SessionAcquisition findOrCreateSession(String userId, String deviceId, String ipAddress, String userAgent,
+                                                  Instant expiresAt) {
+        if (deviceId == null) {
+            UserSession session = createSession(userRepository.getReferenceById(userId), null, ipAddress, userAgent,
+                    expiresAt);
+            return new SessionAcquisition(session.getId(), session.getExpiresAt(), true);
+        }
+        String sessionId = UuidV7.randomString();
+        Instant now = Instant.now();
+        List<String> args = new ArrayList<>();
+        args.add(SESSION_KEY);
+        args.add(sessionId);
+        args.add(String.valueOf(expiresAt.toEpochMilli()));
+        args.add(String.valueOf(Duration.between(now, expiresAt).toMillis()));
+        addField(args, USER_ID, userId);
+        addField(args, DEVICE_ID, deviceId);
+        addField(args, IP_ADDRESS, ipAddress);
+        addField(args, USER_AGENT, userAgent);
+        addField(args, EXPIRES_AT, String.valueOf(expiresAt.toEpochMilli()));
+        addField(args, CREATED_AT, String.valueOf(now.toEpochMilli()));
+
+        List<?> result = redisTemplate.execute(FIND_OR_CREATE_SCRIPT,
+                List.of(deviceSessionPrefix(userId) + deviceId, userSessionsKey(userId), sessionKey(sessionId)),
+                args.toArray());
+        String id = (String) result.get(0);
+        Instant sessionExpiresAt = Instant.ofEpochMilli(Long.parseLong((String) result.get(1)));
+        boolean created = sessionId.equals(id);
+        if (created) {
+            sessionAuditWriter.recordCreated(sessionId, userId, deviceId, ipAddress, userAgent, expiresAt);
+        }
+        return new SessionAcquisition(id, sessionExpiresAt, created);
+    }
+
+    private UserSession toSession(User user, String sessionId, Map<String, String> hash) {
+        if (hash == null || hash.isEmpty() || hash.get(EXPIRES_AT) == null) {
+            return null;
+        }
+        UserSession session = UserSession.create(user, hash.get(DEVICE_ID), hash.get(IP_ADDRESS), hash.get(USER_AGENT));
+        session.setId(sessionId);
+        session.setExpiresAt(Instant.ofEpochMilli(Long.parseLong(hash.get(EXPIRES_AT))));
+        return session;
+    }
+
+    private Set<String> members(String userId) {
+        Set<String> members = redisTemplate.opsForSet().members(userSessionsKey(userId));
+        return members != null ? members : Set.of();
+    }
+
+    private void addField(List<String> args, String field, String value) {
+        if (value != null) {
+            args.add(field);
+            args.add(value);
+        }
+    }
+
+    private String sessionKey(String sessionId) {
+        return SESSION_KEY + sessionId;
+    }
+
+    private String userSessionsKey(String userId) {
+        return USER_SESSIONS_KEY + userId;
+    }
+
+    private String deviceSessionPrefix(String userId) {
+        return DEVICE_SESSION_KEY + userId + ":";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
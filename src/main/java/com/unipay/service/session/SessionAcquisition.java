@@ -0,0 +1,13 @@
+package com.unipay.service.session;
+
+import java.time.Instant;
+
+/**
+ * Outcome of {@link UserSessionService#findOrCreateSession}.
+ *
+ * @param sessionId the session the login is bound to
+ * @param expiresAt when that session expires
+ * @param created   true if a new session was started, false if an active one for the device was reused
+ */
+public record SessionAcquisition(String sessionId, Instant expiresAt, boolean created) {
+}
@@ -0,0 +1,95 @@
+package com.unipay.service.session;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@code user_sessions} table as an asynchronous audit copy when sessions live in Redis.
+ *
+ * <p>Writes run on a single background thread with a bounded queue
+ * ({@code session.audit.queue-capacity}); when the queue is full the write is dropped and logged,
+ * so the audit copy can never slow down or fail a login.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "session.store", havingValue = "redis")
+public class SessionAuditWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_sessions (id, user_id, device_id, ip_address, user_agent, expires_at, revoked, " +
+            "created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), ?, ?, ?, ?, false, ?, ?, 0, false) " +
+            "ON CONFLICT (id) DO NOTHING";
+    private static final String REVOKE_SQL =
+            "UPDATE user_sessions SET revoked = true, updated_at = ? WHERE id = CAST(? AS uuid)";
+    private static final String REVOKE_ALL_SQL =
+            "UPDATE user_sessions SET revoked = true, updated_at = ? WHERE user_id = CAST(? AS uuid) AND revoked = false";
+    private static final String REVOKE_OTHERS_SQL =
+            "UPDATE user_sessions SET revoked = true, updated_at = ? " +
+            "WHERE user_id = CAST(? AS uuid) AND id <> CAST(? AS uuid) AND revoked = false";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public SessionAuditWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${session.audit.queue-capacity:10000}") int queueCapacity
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "session-audit-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> log.warn("Session audit queue full, dropping write"));
+    }
+
+    public void recordCreated(String sessionId, String userId, String deviceId, String ipAddress,
+                              String userAgent, Instant expiresAt) {
+        submit(() -> {
+            Timestamp now = Timestamp.from(Instant.now());
+            jdbcTemplate.update(INSERT_SQL, sessionId, userId, deviceId, ipAddress, userAgent,
+                    Timestamp.from(expiresAt), now, now);
+        });
+    }
+
+    public void recordRevoked(String sessionId) {
+        submit(() -> jdbcTemplate.update(REVOKE_SQL, Timestamp.from(Instant.now()), sessionId));
+    }
+
+    public void recordAllRevoked(String userId) {
+        submit(() -> jdbcTemplate.update(REVOKE_ALL_SQL, Timestamp.from(Instant.now()), userId));
+    }
+
+    public void recordOthersRevoked(String userId, String currentSessionId) {
+        submit(() -> jdbcTemplate.update(REVOKE_OTHERS_SQL, Timestamp.from(Instant.now()), userId, currentSessionId));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void submit(Runnable write) {
+        executor.execute(() -> {
+            try {
+                write.run();
+            } catch (RuntimeException ex) {
+                log.error("Failed to write session audit copy", ex);
+            }
+        });
+    }
+}
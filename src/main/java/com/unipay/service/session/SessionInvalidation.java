@@ -0,0 +1,38 @@
+package com.unipay.service.session;
+
+/**
+ * A request to drop cached session state, either for one session or for every session of a user.
+ *
+ * @param sessionId the session to invalidate, or null when targeting a user
+ * @param userId    the user whose sessions should be invalidated, or null when targeting a session
+ */
+public record SessionInvalidation(String sessionId, String userId) {
+
+    private static final String SESSION_PREFIX = "session:";
+    private static final String USER_PREFIX = "user:";
+
+    public static SessionInvalidation forSession(String sessionId) {
+        return new SessionInvalidation(sessionId, null);
+    }
+
+    public static SessionInvalidation forUser(String userId) {
+        return new SessionInvalidation(null, userId);
+    }
+
+    /**
+     * Wire format used by cross-node buses.
+     */
+    public String encode() {
+        return sessionId != null ? SESSION_PREFIX + sessionId : USER_PREFIX + userId;
+    }
+
+    public static SessionInvalidation decode(String message) {
+        if (message.startsWith(SESSION_PREFIX)) {
+            return forSession(message.substring(SESSION_PREFIX.length()));
+        }
+        if (message.startsWith(USER_PREFIX)) {
+            return forUser(message.substring(USER_PREFIX.length()));
+        }
+        throw new IllegalArgumentException("Unknown session invalidation message: " + message);
+    }
+}
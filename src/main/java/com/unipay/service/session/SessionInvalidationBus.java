@@ -0,0 +1,17 @@
+package com.unipay.service.session;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan-out channel for session invalidations so every application node can evict
+ * cached session state as soon as a session is revoked.
+ */
+public interface SessionInvalidationBus {
+
+    /**
+     * Publishes an invalidation to every subscriber, including those on the local node.
+     */
+    void publish(SessionInvalidation invalidation);
+
+    void subscribe(Consumer<SessionInvalidation> listener);
+}
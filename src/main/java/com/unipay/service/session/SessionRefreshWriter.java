@@ -0,0 +1,112 @@
+package com.unipay.service.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind queue for session expiry refreshes.
+ *
+ * <p>Refreshes are coalesced per session ID (the latest expiry wins) and flushed by a background
+ * job in JDBC batches every {@code session.refresh.flush-interval-ms}, so the authentication
+ * filter never blocks on a session UPDATE and concurrent requests on the same session produce a
+ * single write. The UPDATE skips revoked sessions and never moves an expiry backwards.</p>
+ *
+ * <p>Publishes {@code session.refresh.queue.depth}, {@code session.refresh.flush} (latency) and
+ * {@code session.refresh.flushed} metrics.</p>
+ */
+@Slf4j
+@Component
+public class SessionRefreshWriter {
+
+    private static final String REFRESH_SQL =
+            "UPDATE user_sessions SET expires_at = ?, updated_at = ?, version = COALESCE(version, 0) + 1 " +
+            "WHERE id = CAST(? AS uuid) AND revoked = false AND expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Map<String, Instant> pending = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter flushedCounter;
+
+    public SessionRefreshWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${session.refresh.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        Gauge.builder("session.refresh.queue.depth", pending, Map::size)
+                .description("Session refreshes waiting to be flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("session.refresh.flush")
+                .description("Time spent flushing queued session refreshes")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("session.refresh.flushed")
+                .description("Session refreshes written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a new expiry for the session, keeping the latest one if a refresh is already pending.
+     */
+    public void enqueue(String sessionId, Instant expiresAt) {
+        pending.merge(sessionId, expiresAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${session.refresh.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushTimer.record(this::drain);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void drain() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (String sessionId : new ArrayList<>(pending.keySet())) {
+            Instant expiresAt = pending.remove(sessionId);
+            if (expiresAt == null) {
+                continue;
+            }
+            Timestamp expiry = Timestamp.from(expiresAt);
+            batch.add(new Object[]{expiry, Timestamp.from(Instant.now()), sessionId, expiry});
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(REFRESH_SQL, batch);
+            flushedCounter.increment(batch.size());
+            log.debug("Flushed {} session refreshes", batch.size());
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush {} session refreshes", batch.size(), ex);
+        }
+    }
+}
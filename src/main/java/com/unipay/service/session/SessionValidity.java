@@ -0,0 +1,33 @@
+package com.unipay.service.session;
+
+import com.unipay.models.UserSession;
+
+import java.time.Instant;
+
+/**
+ * Minimal, immutable snapshot of what the authentication path needs to know about a session.
+ *
+ * @param sessionId the session's ID
+ * @param userId    the owning user's ID, used for per-user invalidation
+ * @param revoked   whether the session has been revoked
+ * @param expiresAt when the session expires
+ */
+public record SessionValidity(String sessionId, String userId, boolean revoked, Instant expiresAt) {
+
+    public static SessionValidity of(UserSession session) {
+        return new SessionValidity(
+                session.getId(),
+                session.getUser() != null ? session.getUser().getId() : null,
+                session.isRevoked(),
+                session.getExpiresAt()
+        );
+    }
+
+    public SessionValidity withExpiresAt(Instant newExpiresAt) {
+        return new SessionValidity(sessionId, userId, revoked, newExpiresAt);
+    }
+
+    public boolean isValid(Instant now) {
+        return !revoked && expiresAt != null && expiresAt.isAfter(now);
+    }
+}
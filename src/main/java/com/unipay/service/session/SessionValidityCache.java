@@ -0,0 +1,77 @@
+package com.unipay.service.session;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near cache of {@link SessionValidity} used by the authentication path.
+ *
+ * <p>Entries are kept for at most {@code session.cache.max-staleness-ms}, which bounds how long
+ * a change made outside this application can go unnoticed. Revocations made through
+ * {@link UserSessionService} are broadcast on the {@link SessionInvalidationBus} and evict
+ * entries on every node as soon as the revoking transaction commits.</p>
+ */
+@Component
+public class SessionValidityCache {
+
+    private final Cache<String, SessionValidity> cache;
+    private final SessionInvalidationBus invalidationBus;
+
+    public SessionValidityCache(
+            SessionInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${session.cache.maximum-size:50000}") long maximumSize,
+            @Value("${session.cache.max-staleness-ms:5000}") long maxStalenessMs
+    ) {
+        this.invalidationBus = invalidationBus;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStalenessMs, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "session.validity");
+        invalidationBus.subscribe(this::evict);
+    }
+
+    public SessionValidity get(String sessionId) {
+        return cache.getIfPresent(sessionId);
+    }
+
+    public void put(SessionValidity validity) {
+        cache.put(validity.sessionId(), validity);
+    }
+
+    /**
+     * Evicts locally right away and broadcasts the invalidation once the current
+     * transaction commits, so no node can re-cache the pre-revocation state.
+     */
+    public void invalidate(SessionInvalidation invalidation) {
+        evict(invalidation);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationBus.publish(invalidation);
+                }
+            });
+        } else {
+            invalidationBus.publish(invalidation);
+        }
+    }
+
+    private void evict(SessionInvalidation invalidation) {
+        if (invalidation.sessionId() != null) {
+            cache.invalidate(invalidation.sessionId());
+        } else if (invalidation.userId() != null) {
+            cache.asMap().values().removeIf(validity -> invalidation.userId().equals(validity.userId()));
+        }
+    }
+}
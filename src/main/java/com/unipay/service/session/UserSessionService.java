@@ -14,11 +14,17 @@ import java.util.Optional;
 public interface UserSessionService {
     UserSession createSession(User user, String deviceId, String ipAddress, String userAgent, Instant expiresAt);
     List<UserSession> getActiveSessions(User user);
-    UserSession validateAndRefreshSession(String sessionId);
+    SessionValidity validateAndRefreshSession(String sessionId);
     void revokeSession(String sessionId);
     void revokeAllSessions(User user);
     void revokeOtherSessions(User currentUser, String currentSessionId);
     void revokeExpiredSessions(User user);
     boolean hasActiveSessionForDevice(User user, String deviceId);
     Optional<UserSession> findActiveByUserAndDevice(User user, String deviceId, Instant now);
+
+    /**
+     * Returns the user's active session for the device, or starts one if there is none.
+     * Implementations must not start two sessions when the same device logs in concurrently.
+     */
+    SessionAcquisition findOrCreateSession(String userId, String deviceId, String ipAddress, String userAgent, Instant expiresAt);
 }
@@ -3,13 +3,20 @@ package com.unipay.service.session;
 import com.unipay.models.User;
 import com.unipay.models.UserSession;
 import com.unipay.repository.UserSessionRepository;
+import com.unipay.utils.UuidV7;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,15 +24,44 @@ import java.util.Optional;
 /**
  * Service implementation for managing user sessions including creation, validation,
  * invalidation, and revocation logic.
+ *
+ * <p>Sessions are stored in the {@code user_sessions} table. This is the default store
+ * ({@code session.store=jpa}); see {@link RedisUserSessionServiceImpl} for the Redis alternative.</p>
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "session.store", havingValue = "jpa", matchIfMissing = true)
 public class UserSessionServiceImpl implements UserSessionService {
 
     private static final Duration SESSION_REFRESH_THRESHOLD = Duration.ofMinutes(15);
+    private static final Duration SESSION_REFRESH_EXTENSION = Duration.ofMillis(800000);
+
+    /**
+     * Retires the device's expired session, if any, so that {@link #FIND_OR_CREATE_SQL} inserts a fresh row
+     * instead of conflicting with it. The row lock taken here also queues a concurrent login for the same
+     * device behind this transaction.
+     */
+    private static final String REVOKE_EXPIRED_DEVICE_SQL =
+            "UPDATE user_sessions SET revoked = true, updated_at = :now " +
+            "WHERE user_id = CAST(:userId AS uuid) AND device_id = :deviceId AND revoked = false AND expires_at <= :instant";
+
+    /**
+     * Relies on the partial unique index {@code uk_session_active_device} on
+     * {@code (user_id, device_id) WHERE revoked = false}. A live session for the device is returned
+     * untouched; the no-op update only exists so that {@code RETURNING} yields the existing row.
+     */
+    private static final String FIND_OR_CREATE_SQL =
+            "INSERT INTO user_sessions AS s (id, user_id, device_id, ip_address, user_agent, expires_at, revoked, " +
+            "created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(:id AS uuid), CAST(:userId AS uuid), :deviceId, :ipAddress, :userAgent, :expiresAt, false, :now, :now, 0, false) " +
+            "ON CONFLICT (user_id, device_id) WHERE revoked = false DO UPDATE SET updated_at = s.updated_at " +
+            "RETURNING s.id, s.expires_at";
 
     private final UserSessionRepository userSessionRepository;
+    private final SessionValidityCache sessionValidityCache;
+    private final SessionRefreshWriter sessionRefreshWriter;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Transactional
     public UserSession createSession(User user, String deviceId, String ipAddress, String userAgent, Instant expiresAt) {
@@ -51,33 +87,46 @@ public class UserSessionServiceImpl implements UserSessionService {
     }
     /**
      * Validates a session by ID. If still valid, extends its expiration (optional).
+     *
+     * <p>Served from the {@link SessionValidityCache} when possible; the database is only read on a
+     * cache miss or when the cached entry appears expired. A cached revocation is trusted as-is since
+     * revocation is terminal. Expiry extensions are handed to the {@link SessionRefreshWriter} rather
+     * than written inline, so this method never blocks on an UPDATE.</p>
+     *
      * @param sessionId the UUID or DB‐assigned ID of the session
-     * @return the up‐to‐date UserSession, or null if invalid/expired/revoked
+     * @return the up‐to‐date session state, or null if invalid/expired/revoked
      */
-    @Transactional
-    public UserSession validateAndRefreshSession(String sessionId) {
+    public SessionValidity validateAndRefreshSession(String sessionId) {
         if (sessionId == null || sessionId.isEmpty()) return null;
 
-        return userSessionRepository.findById(sessionId)
-                .map(session -> {
-                    if (!validateSession(session)) {
-                        log.warn("Invalid session: {}", sessionId);
-                        return null;
-                    }
-
-                    if (shouldRefreshSession(session)) {
-                        session.setExpiresAt(Instant.now().plusMillis(800000));
-                        userSessionRepository.save(session);
-                        log.debug("Refreshed session expiration: {}", sessionId);
-                    }
-
-                    return session;
-                })
-                .orElse(null);
+        Instant now = Instant.now();
+        SessionValidity validity = sessionValidityCache.get(sessionId);
+        if (validity == null || (!validity.revoked() && !validity.isValid(now))) {
+            validity = userSessionRepository.findValidityById(sessionId).orElse(null);
+            if (validity == null) {
+                return null;
+            }
+            sessionValidityCache.put(validity);
+        }
+
+        if (!validity.isValid(now)) {
+            log.warn("Invalid session: {}", sessionId);
+            return null;
+        }
+
+        if (shouldRefreshSession(validity.expiresAt())) {
+            Instant expiresAt = now.plus(SESSION_REFRESH_EXTENSION);
+            sessionRefreshWriter.enqueue(sessionId, expiresAt);
+            validity = validity.withExpiresAt(expiresAt);
+            sessionValidityCache.put(validity);
+            log.debug("Queued session expiration refresh: {}", sessionId);
+        }
+
+        return validity;
     }
 
-    private boolean shouldRefreshSession(UserSession session) {
-        Duration remaining = Duration.between(Instant.now(), session.getExpiresAt());
+    private boolean shouldRefreshSession(Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
         return remaining.compareTo(SESSION_REFRESH_THRESHOLD) < 0;
     }
 
@@ -87,6 +136,7 @@ public class UserSessionServiceImpl implements UserSessionService {
                 .ifPresent(session -> {
                     session.setRevoked(true);
                     userSessionRepository.save(session);
+                    sessionValidityCache.invalidate(SessionInvalidation.forSession(sessionId));
                     log.info("Revoked session: {}", sessionId);
                 });
     }
@@ -97,6 +147,7 @@ public class UserSessionServiceImpl implements UserSessionService {
                 user.getId(),
                 Instant.now()
         );
+        sessionValidityCache.invalidate(SessionInvalidation.forUser(user.getId()));
         log.info("Revoked all sessions for user: {}", user.getEmail());
     }
 
@@ -107,6 +158,7 @@ public class UserSessionServiceImpl implements UserSessionService {
                 currentSessionId,
                 Instant.now()
         );
+        sessionValidityCache.invalidate(SessionInvalidation.forUser(currentUser.getId()));
         log.info("Revoked other sessions for user: {}", currentUser.getEmail());
     }
 
@@ -135,6 +187,39 @@ public class UserSessionServiceImpl implements UserSessionService {
                 .findFirstByUserAndDeviceIdAndRevokedFalseAndExpiresAtAfter(user, deviceId, now);
     }
 
+    /**
+     * Finds or creates the device's session with an {@code INSERT ... ON CONFLICT} statement, after revoking
+     * an expired session for the device so it is replaced by a new row rather than reused under a new ID.
+     * Concurrent logins from one device serialize on the unique index and end up sharing one session.
+     */
+    @Transactional
+    @Override
+    public SessionAcquisition findOrCreateSession(String userId, String deviceId, String ipAddress, String userAgent,
+                                                  Instant expiresAt) {
+        String sessionId = UuidV7.randomString();
+        Instant now = Instant.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", sessionId)
+                .addValue("userId", userId)
+                .addValue("deviceId", deviceId)
+                .addValue("ipAddress", ipAddress)
+                .addValue("userAgent", userAgent)
+                .addValue("expiresAt", Timestamp.from(expiresAt))
+                .addValue("now", Timestamp.valueOf(LocalDateTime.ofInstant(now, ZoneId.systemDefault())))
+                .addValue("instant", Timestamp.from(now));
+
+        namedParameterJdbcTemplate.update(REVOKE_EXPIRED_DEVICE_SQL, params);
+        SessionAcquisition acquisition = namedParameterJdbcTemplate.queryForObject(FIND_OR_CREATE_SQL, params,
+                (rs, rowNum) -> {
+                    String id = rs.getString(1);
+                    return new SessionAcquisition(id, rs.getTimestamp(2).toInstant(), sessionId.equals(id));
+                });
+        if (acquisition.created()) {
+            sessionValidityCache.put(new SessionValidity(acquisition.sessionId(), userId, false, acquisition.expiresAt()));
+        }
+        return acquisition;
+    }
+
     public boolean validateSession(UserSession session) {
         return session != null &&
                 !session.isRevoked() &&
@@ -3,9 +3,13 @@ package com.unipay.service.user;
 import com.unipay.command.UserRegisterCommand;
 import com.unipay.criteria.UserCriteria;
 import com.unipay.models.User;
+import com.unipay.payload.AuthUserView;
+import com.unipay.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -40,14 +44,44 @@ public interface UserService {
      */
     User create(final UserRegisterCommand command);
     /**
-     * Returns a paginated list of users filtered by the provided criteria.
+     * Returns a paginated list of users filtered by the provided criteria, projected to the requested fields.
      *
-     * @param pageable The pagination and sorting information.
+     * @param pageable The pagination and sorting information; sort properties must be selectable fields.
      * @param criteria The criteria used to filter the users.
-     * @return A {@link Page} of {@link User} entities matching the specified criteria.
+     * @param fields   Comma-separated fields of {@link com.unipay.constants.FieldSets#USERS}, or null for the defaults.
+     * @return A {@link Page} of rows mapping each selected field to its value.
      */
-    Page<User> getAllByCriteria(Pageable pageable, UserCriteria criteria);
+    Page<Map<String, Object>> getAllByCriteria(Pageable pageable, UserCriteria criteria, String fields);
+    /**
+     * Returns one keyset-paginated slice of users matching the criteria, newest first, projected to the
+     * requested fields.
+     *
+     * @param criteria The criteria used to filter the users.
+     * @param fields   Comma-separated fields of {@link com.unipay.constants.FieldSets#USERS}, or null for the defaults.
+     * @param cursor   The continuation token from the previous slice, or null for the first one.
+     * @param size     The requested slice size.
+     * @param count    Whether to also count all matching users.
+     * @return A {@link CursorPage} of rows mapping each selected field to its value.
+     */
+    CursorPage<Map<String, Object>> scrollByCriteria(UserCriteria criteria, String fields, String cursor, Integer size,
+                                                     boolean count);
+    /**
+     * Searches users by username or email, best matches first.
+     *
+     * <p>Terms of at least three characters (one trigram) match anywhere in the username or email;
+     * shorter terms match prefixes only. Exact matches rank first, then prefix matches.</p>
+     *
+     * @param query  The search term; case-insensitive.
+     * @param fields Comma-separated fields of {@link com.unipay.constants.FieldSets#USERS}, or null for the defaults.
+     * @param limit  The requested number of results, clamped to the maximum page size.
+     * @return Rows mapping each selected field to its value, best match first.
+     */
+    List<Map<String, Object>> search(String query, String fields, Integer limit);
     User findByEmailWithNoOptional(String email);
     Optional<User> findByEmail(String email);
+    /**
+     * Loads the lean, read-only {@link AuthUserView} projection used by the authentication path.
+     */
+    Optional<AuthUserView> findAuthViewByEmail(String email);
     User findByUsername(String username);
 }
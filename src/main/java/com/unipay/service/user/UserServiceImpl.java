@@ -1,6 +1,7 @@
 package com.unipay.service.user;
 
 import com.unipay.command.UserRegisterCommand;
+import com.unipay.constants.FieldSets;
 import com.unipay.criteria.UserCriteria;
 import com.unipay.enums.AuditLogAction;
 import com.unipay.enums.RoleName;
@@ -10,20 +11,29 @@ import com.unipay.exception.ExceptionPayloadFactory;
 import com.unipay.helper.UserRegistrationHelper;
 import com.unipay.models.MFASettings;
 import com.unipay.models.User;
+import com.unipay.payload.AuthUserView;
 import com.unipay.repository.ConfirmationTokenRepository;
 import com.unipay.repository.UserRepository;
+import com.unipay.response.CursorPage;
 import com.unipay.service.audit_log.AuditLogService;
 import com.unipay.service.mail.EmailService;
 import com.unipay.service.role.RoleService;
 import com.unipay.service.session.UserSessionService;
+import com.unipay.utils.CursorCodec;
+import com.unipay.utils.SparseFieldsetQuery;
+import com.unipay.utils.UserSearchSpecification;
+import com.unipay.utils.UserSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -49,10 +59,14 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final String USERS_SCOPE = "users";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleService roleService;
     private final AuditLogService auditLogService;
+    private final CursorCodec cursorCodec;
+    private final SparseFieldsetQuery sparseFieldsetQuery;
     private final UserSessionService userSessionService;
     private final ConfirmationTokenRepository confirmationTokenRepository;
     private final UserRegistrationHelper registrationHelper;
@@ -120,25 +134,55 @@ public class UserServiceImpl implements UserService {
         user.setMfaSettings(mfaSettings);
     }
     /**
-     * Retrieves a paginated list of users based on filtering criteria.
+     * Retrieves a paginated list of users based on filtering criteria, selecting only the requested fields.
      *
      * @param pageable Pagination and sorting info.
      * @param criteria Filters to apply.
-     * @return A paginated list of {@link User} entities.
+     * @param fields   The requested fields, or null for the defaults.
+     * @return A paginated list of projected user rows.
      */
     @Override
     @Transactional(readOnly = true)
-    public Page<User> getAllByCriteria(Pageable pageable, UserCriteria criteria) {
+    public Page<Map<String, Object>> getAllByCriteria(Pageable pageable, UserCriteria criteria, String fields) {
+        List<String> selected = FieldSets.USERS.select(fields);
         try {
-            Page<User> users = userRepository.getUsersByCriteria(pageable, criteria);
+            Page<Map<String, Object>> users = sparseFieldsetQuery.findPage(User.class, FieldSets.USERS, selected,
+                    new UserSpecification(criteria), pageable);
             log.debug("Users fetched by criteria successfully.");
             return users;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching users by criteria", e);
             throw new BusinessException(ExceptionPayloadFactory.TECHNICAL_ERROR.get(), e);
         }
     }
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> scrollByCriteria(UserCriteria criteria, String fields, String cursor,
+                                                            Integer size, boolean count) {
+        Window<Map<String, Object>> users = sparseFieldsetQuery.scroll(User.class, FieldSets.USERS,
+                FieldSets.USERS.select(fields), new UserSpecification(criteria),
+                cursorCodec.decode(USERS_SCOPE, cursor, "createdAt"), cursorCodec.limit(size));
+        Long total = count ? userRepository.count(new UserSpecification(criteria)) : null;
+        return cursorCodec.toPage(USERS_SCOPE, users, "createdAt", total);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> search(String query, String fields, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException(ExceptionPayloadFactory.INVALID_PAYLOAD.get());
+        }
+        UserSearchSpecification search = new UserSearchSpecification(query);
+        return sparseFieldsetQuery.findList(User.class, FieldSets.USERS, FieldSets.USERS.select(fields), search,
+                search, cursorCodec.limit(limit).max());
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AuthUserView> findAuthViewByEmail(String email) {
+        return userRepository.findAuthViewByEmail(email);
+    }
+    @Override
     public Optional<User> findByEmail(String email) {
         log.debug("Searching for user by email: {}", email);
         Optional<User> optionalUser = userRepository.findByEmail(email);
@@ -0,0 +1,23 @@
+package com.unipay.service.user_import;
+
+import com.unipay.enums.DataFormat;
+import com.unipay.response.UserImportResult;
+
+import java.io.InputStream;
+
+/**
+ * Creates users in bulk from an uploaded file, for migrating an existing user base.
+ */
+public interface UserImportService {
+
+    /**
+     * Streams the upload in chunks and creates one {@code PENDING} user, with profile, settings, MFA
+     * settings, the {@code USER} role and a queued confirmation mail, for every valid row. Invalid and
+     * duplicate rows are skipped and reported; they never abort the import.
+     *
+     * @param input  the uploaded file
+     * @param format the file's format
+     * @return counts and the rejected rows
+     */
+    UserImportResult importUsers(InputStream input, DataFormat format);
+}
@@ -0,0 +1,470 @@
+package com.unipay.service.user_import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unipay.command.UserRegisterCommand;
+import com.unipay.enums.AuditLogAction;
+import com.unipay.enums.DataFormat;
+import com.unipay.enums.EmailOutboxType;
+import com.unipay.enums.OutboxStatus;
+import com.unipay.enums.RoleName;
+import com.unipay.enums.UserGender;
+import com.unipay.enums.UserStatus;
+import com.unipay.exception.BusinessException;
+import com.unipay.exception.ExceptionPayloadFactory;
+import com.unipay.repository.RoleRepository;
+import com.unipay.response.UserImportError;
+import com.unipay.response.UserImportResult;
+import com.unipay.utils.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bulk user import that bypasses the per-user JPA registration path.
+ *
+ * <p>The upload is read line by line and handled in chunks of {@code user-import.chunk-size} rows, so
+ * memory use does not depend on the file size. For each chunk:</p>
+ * <ol>
+ *   <li>rows are parsed and validated in parallel on the import pool;</li>
+ *   <li>rows repeating an email or username, within the chunk or already stored, are rejected with one
+ *   {@code = ANY(?)} query;</li>
+ *   <li>passwords are BCrypt-hashed in parallel on the same pool, which is separate from the login
+ *   hashing pool so an import cannot starve sign-ins;</li>
+ *   <li>users, profiles, settings, MFA settings, role assignments, audit logs and confirmation outbox
+ *   entries are written with one JDBC batch per table in a single transaction.</li>
+ * </ol>
+ *
+ * <p>If a chunk's transaction fails, its rows are retried one by one so a single bad row only rejects
+ * itself; any exception from a single-row write rejects that row. Confirmation mail is not sent here; {@link com.unipay.service.mail.EmailOutboxDispatcher}
+ * delivers the queued entries. Publishes {@code user.import.chunk} and {@code user.import.rows}.</p>
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Set<String> PROFILE_COLUMNS =
+            Set.of("fullName", "dateOfBirth", "phoneNumber", "gender", "nationality");
+    private static final Set<String> SETTINGS_COLUMNS =
+            Set.of("emailNotificationsEnabled", "preferredLanguage", "timezone");
+
+    private static final String EXISTING_SQL =
+            "SELECT email, username FROM users WHERE email = ANY (?) OR username = ANY (?)";
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, username, email, password_hash, status, created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), ?, ?, ?, ?, ?, ?, 0, false) ON CONFLICT DO NOTHING";
+    private static final String INSERT_PROFILE_SQL =
+            "INSERT INTO user_profiles (id, user_id, full_name, date_of_birth, phone_number, gender, nationality, " +
+            "created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), ?, ?, ?, ?, ?, ?, ?, 0, false)";
+    private static final String INSERT_SETTINGS_SQL =
+            "INSERT INTO user_settings (id, user_id, email_notifications_enabled, preferred_language, timezone, " +
+            "created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), ?, ?, ?, ?, ?, 0, false)";
+    private static final String INSERT_MFA_SQL =
+            "INSERT INTO mfasettings (id, user_id, enabled, created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), false, ?, ?, 0, false)";
+    private static final String INSERT_ROLE_SQL =
+            "INSERT INTO user_roles (id, user_id, role_id, assigned_at, created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), CAST(? AS uuid), ?, ?, ?, 0, false)";
+    private static final String INSERT_AUDIT_SQL =
+            "INSERT INTO audit_logs (id, user_id, action, details, timestamp, created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), ?, ?, ?, ?, ?, 0, false)";
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO email_outbox (id, user_id, type, status, attempts, next_attempt_at, " +
+            "created_at, updated_at, version, is_deleted) " +
+            "VALUES (CAST(? AS uuid), CAST(? AS uuid), ?, ?, 0, ?, ?, ?, 0, false)";
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final Timer chunkTimer;
+    private final Counter importedCounter;
+    private final Counter rejectedCounter;
+
+    public UserImportServiceImpl(
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            RoleRepository roleRepository,
+            MeterRegistry meterRegistry,
+            @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${user-import.parallelism:0}") int parallelism,
+            @Value("${user-import.chunk-size:500}") int chunkSize,
+            @Value("${user-import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.chunkTimer = Timer.builder("user.import.chunk")
+                .description("Time to validate, hash and store one chunk of imported users")
+                .register(meterRegistry);
+        this.importedCounter = Counter.builder("user.import.rows")
+                .tag("result", "imported")
+                .description("Rows processed by the bulk user import")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("user.import.rows")
+                .tag("result", "rejected")
+                .description("Rows processed by the bulk user import")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserImportResult importUsers(InputStream input, DataFormat format) {
+        String roleId = roleRepository.findByName(RoleName.USER)
+                .orElseThrow(() -> new BusinessException(ExceptionPayloadFactory.ROLE_NOT_FOUND.get()))
+                .getId();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == DataFormat.CSV && header == null) {
+                    header = splitCsv(line).stream().map(String::trim).toArray(String[]::new);
+                    continue;
+                }
+                chunk.add(new RawRow(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, header, format, roleId, report);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, header, format, roleId, report);
+            }
+        } catch (IOException ex) {
+            log.warn("User import aborted while reading the upload after {} rows ({} imported)",
+                    report.received, report.imported, ex);
+            throw new BusinessException(ExceptionPayloadFactory.IMPORT_READ_FAILED.get());
+        }
+        log.info("User import finished: {} rows, {} imported, {} rejected", report.received, report.imported,
+                report.rejected);
+        return report.toResult();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void processChunk(List<RawRow> rows, String[] header, DataFormat format, String roleId,
+                              ImportReport report) {
+        chunkTimer.record(() -> {
+            report.received += rows.size();
+            List<ParsedRow> parsed = new ArrayList<>(rows.size());
+            for (ParsedRow row : parallel(rows, raw -> parse(raw, header, format))) {
+                if (row.error() != null) {
+                    reject(report, row.error());
+                } else {
+                    parsed.add(row);
+                }
+            }
+            List<ParsedRow> unique = rejectDuplicates(parsed, report);
+            List<Candidate> candidates = parallel(unique, row -> new Candidate(row.line(), UuidV7.randomString(),
+                    row.command(), row.gender(), passwordEncoder.encode(row.command().getPassword())));
+            store(candidates, roleId, report);
+        });
+    }
+
+    private ParsedRow parse(RawRow raw, String[] header, DataFormat format) {
+        UserRegisterCommand command;
+        try {
+            command = format == DataFormat.CSV
+                    ? objectMapper.convertValue(toCommandTree(header, splitCsv(raw.text())), UserRegisterCommand.class)
+                    : objectMapper.readValue(raw.text(), UserRegisterCommand.class);
+        } catch (IOException | IllegalArgumentException ex) {
+            return ParsedRow.rejected(new UserImportError(raw.line(), null, "Malformed row"));
+        }
+        if (command.getProfile() == null || command.getSettings() == null) {
+            return ParsedRow.rejected(new UserImportError(raw.line(), command.getEmail(),
+                    "Profile and settings are required"));
+        }
+        UserGender gender;
+        try {
+            command.validate();
+            gender = UserGender.valueOf(command.getProfile().getGender().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException ex) {
+            return ParsedRow.rejected(new UserImportError(raw.line(), command.getEmail(),
+                    ex.getMessage() != null ? ex.getMessage() : "Invalid row"));
+        }
+        return new ParsedRow(raw.line(), command, gender, null);
+    }
+
+    /**
+     * Maps a CSV row onto the registration request shape, nesting profile and settings columns.
+     */
+    private Map<String, Object> toCommandTree(String[] header, List<String> values) {
+        if (header == null) {
+            throw new IllegalArgumentException("Missing CSV header");
+        }
+        Map<String, Object> root = new HashMap<>();
+        Map<String, Object> profile = new HashMap<>();
+        Map<String, Object> settings = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            if (PROFILE_COLUMNS.contains(header[i])) {
+                profile.put(header[i], value);
+            } else if (SETTINGS_COLUMNS.contains(header[i])) {
+                settings.put(header[i], value);
+            } else {
+                root.put(header[i], value);
+            }
+        }
+        root.put("profile", profile);
+        root.put("settings", settings);
+        return root;
+    }
+
+    private List<ParsedRow> rejectDuplicates(List<ParsedRow> rows, ImportReport report) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        String[] emails = rows.stream().map(row -> row.command().getEmail()).toArray(String[]::new);
+        String[] usernames = rows.stream().map(row -> row.command().getUsername()).toArray(String[]::new);
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenUsernames = new HashSet<>();
+        jdbcTemplate.query(EXISTING_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", emails));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", usernames));
+        }, rs -> {
+            takenEmails.add(rs.getString("email"));
+            takenUsernames.add(rs.getString("username"));
+        });
+
+        List<ParsedRow> unique = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            String email = row.command().getEmail();
+            String username = row.command().getUsername();
+            if (takenEmails.contains(email) || takenUsernames.contains(username)) {
+                reject(report, new UserImportError(row.line(), email, "Email or username already exists"));
+            } else {
+                takenEmails.add(email);
+                takenUsernames.add(username);
+                unique.add(row);
+            }
+        }
+        return unique;
+    }
+
+    private void store(List<Candidate> candidates, String roleId, ImportReport report) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            record(write(candidates, roleId), candidates, report);
+        } catch (RuntimeException ex) {
+            log.warn("User import chunk failed, retrying {} rows individually", candidates.size(), ex);
+            for (Candidate candidate : candidates) {
+                try {
+                    record(write(List.of(candidate), roleId), List.of(candidate), report);
+                } catch (RuntimeException rowEx) {
+                    log.debug("Imported user on line {} could not be stored", candidate.line(), rowEx);
+                    reject(report, new UserImportError(candidate.line(), candidate.command().getEmail(),
+                            "Could not be stored"));
+                }
+            }
+        }
+    }
+
+    private void record(Set<String> createdIds, List<Candidate> candidates, ImportReport report) {
+        for (Candidate candidate : candidates) {
+            if (createdIds.contains(candidate.userId())) {
+                report.imported++;
+                importedCounter.increment();
+            } else {
+                reject(report, new UserImportError(candidate.line(), candidate.command().getEmail(),
+                        "Email or username already exists"));
+            }
+        }
+    }
+
+    /**
+     * Writes the candidates in one transaction and returns the IDs of the users actually created; rows
+     * that lost a race with a concurrent registration are skipped by {@code ON CONFLICT DO NOTHING}.
+     */
+    private Set<String> write(List<Candidate> candidates, String roleId) {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Timestamp instant = Timestamp.from(Instant.now());
+
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_USER_SQL, candidates.stream()
+                    .map(c -> new Object[]{c.userId(), c.command().getUsername(), c.command().getEmail(),
+                            c.passwordHash(), UserStatus.PENDING.name(), now, now})
+                    .toList());
+            List<Candidate> created = new ArrayList<>(candidates.size());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    created.add(candidates.get(i));
+                }
+            }
+            if (created.isEmpty()) {
+                return Set.of();
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_PROFILE_SQL, created.stream()
+                    .map(c -> new Object[]{UuidV7.randomString(), c.userId(), c.command().getProfile().getFullName(),
+                            Date.valueOf(c.command().getProfile().getDateOfBirth()),
+                            c.command().getProfile().getPhoneNumber(),
+                            c.gender().name(),
+                            c.command().getProfile().getNationality(), now, now})
+                    .toList());
+            jdbcTemplate.batchUpdate(INSERT_SETTINGS_SQL, created.stream()
+                    .map(c -> new Object[]{UuidV7.randomString(), c.userId(),
+                            c.command().getSettings().isEmailNotificationsEnabled(),
+                            c.command().getSettings().getPreferredLanguage(), c.command().getSettings().getTimezone(),
+                            now, now})
+                    .toList());
+            jdbcTemplate.batchUpdate(INSERT_MFA_SQL, created.stream()
+                    .map(c -> new Object[]{UuidV7.randomString(), c.userId(), now, now})
+                    .toList());
+            jdbcTemplate.batchUpdate(INSERT_ROLE_SQL, created.stream()
+                    .map(c -> new Object[]{UuidV7.randomString(), c.userId(), roleId, now, now, now})
+                    .toList());
+            jdbcTemplate.batchUpdate(INSERT_AUDIT_SQL, created.stream()
+                    .map(c -> new Object[]{UuidV7.randomString(), c.userId(), AuditLogAction.USER_CREATED.getAction(),
+                            "User imported", now, now, now})
+                    .toList());
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, created.stream()
+                    .map(c -> new Object[]{UuidV7.randomString(), c.userId(), EmailOutboxType.CONFIRMATION.name(),
+                            OutboxStatus.PENDING.name(), instant, now, now})
+                    .toList());
+
+            Set<String> ids = new HashSet<>();
+            created.forEach(c -> ids.add(c.userId()));
+            return ids;
+        });
+    }
+
+    private <T, R> List<R> parallel(List<T> items, Function<T, R> task) {
+        List<CompletableFuture<R>> futures = items.stream()
+                .map(item -> CompletableFuture.supplyAsync(() -> task.apply(item), executor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private void reject(ImportReport report, UserImportError error) {
+        report.reject(error);
+        rejectedCounter.increment();
+    }
+
+    /**
+     * Splits one CSV line; fields may be double-quoted, with {@code ""} standing for a literal quote.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record RawRow(long line, String text) {
+    }
+
+    private record ParsedRow(long line, UserRegisterCommand command, UserGender gender, UserImportError error) {
+        static ParsedRow rejected(UserImportError error) {
+            return new ParsedRow(error.line(), null, null, error);
+        }
+    }
+
+    private record Candidate(long line, String userId, UserRegisterCommand command, UserGender gender,
+                             String passwordHash) {
+    }
+
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<UserImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        private ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(UserImportError error) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+
+        private UserImportResult toResult() {
+            return new UserImportResult(received, imported, rejected, List.copyOf(errors), rejected > errors.size());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.unipay.utils;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.unipay.exception.BusinessException;
+import com.unipay.exception.ExceptionPayloadFactory;
+import com.unipay.models.BaseEntity;
+import com.unipay.response.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes and verifies the continuation tokens of keyset-paginated listings.
+ *
+ * <p>Listings are ordered by {@code (timestamp DESC, id DESC)}, so a token only needs the last row's
+ * timestamp and ID; the next slice is an index range scan from that key whatever its depth, and no
+ * OFFSET or COUNT is involved. A token is {@code base64url(payload).base64url(mac)} where the MAC is an
+ * HMAC-SHA256 over the listing's scope and the payload, keyed with {@code pagination.cursor-secret}.
+ * Tampered tokens, and tokens issued for a different listing or user, are rejected with
+ * {@link ExceptionPayloadFactory#INVALID_CURSOR}.</p>
+ */
+@Component
+public class CursorCodec {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int MAC_BYTES = 16;
+    private static final String ID = "id";
+
+    private final HashFunction mac;
+
+    public CursorCodec(@Value("${pagination.cursor-secret:${jwt.secret}}") String secret) {
+        this.mac = Hashing.hmacSha256(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param scope             identifies the listing (and owner) the token must have been issued for
+     * @param cursor            the client's token, or null/blank for the first slice
+     * @param timestampProperty the entity property the listing is ordered by
+     * @return the keyset position to continue from
+     */
+    public KeysetScrollPosition decode(String scope, String cursor, String timestampProperty) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            int separator = cursor.indexOf('.');
+            byte[] payload = Base64.getUrlDecoder().decode(cursor.substring(0, separator));
+            byte[] signature = Base64.getUrlDecoder().decode(cursor.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(scope, payload), signature) || payload[0] != FORMAT_VERSION) {
+                throw invalid();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(payload, 1, payload.length - 1);
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            byte[] id = new byte[buffer.remaining()];
+            buffer.get(id);
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(timestampProperty, timestamp);
+            keys.put(ID, new String(id, StandardCharsets.UTF_8));
+            return ScrollPosition.forward(keys);
+        } catch (BusinessException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * @return the requested page size clamped to {@code [1, MAX_PAGE_SIZE]}
+     */
+    public Limit limit(Integer size) {
+        int requested = size == null ? DEFAULT_PAGE_SIZE : size;
+        return Limit.of(Math.max(1, Math.min(requested, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Wraps a scrolled window, issuing a token for the next slice if there is one.
+     */
+    public <T extends BaseEntity> CursorPage<T> toPage(String scope, Window<T> window,
+                                                       Function<T, LocalDateTime> timestamp, Long totalElements) {
+        List<T> content = window.getContent();
+        String next = null;
+        if (window.hasNext() && !content.isEmpty()) {
+            T last = content.get(content.size() - 1);
+            next = encode(scope, timestamp.apply(last), last.getId());
+        }
+        return new CursorPage<>(content, next, totalElements);
+    }
+
+    /**
+     * Wraps a scrolled window of projected rows, issuing a token from the keyset position of its last row.
+     */
+    public <T> CursorPage<T> toPage(String scope, Window<T> window, String timestampProperty, Long totalElements) {
+        List<T> content = window.getContent();
+        String next = null;
+        if (window.hasNext() && !content.isEmpty()) {
+            Map<String, Object> keys = ((KeysetScrollPosition) window.positionAt(content.size() - 1)).getKeys();
+            next = encode(scope, (LocalDateTime) keys.get(timestampProperty), (String) keys.get(ID));
+        }
+        return new CursorPage<>(content, next, totalElements);
+    }
+
+    private String encode(String scope, LocalDateTime timestamp, String id) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + idBytes.length)
+                .put(FORMAT_VERSION)
+                .putLong(timestamp.toEpochSecond(ZoneOffset.UTC))
+                .putInt(timestamp.getNano())
+                .put(idBytes)
+                .array();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(scope, payload));
+    }
+
+    private byte[] sign(String scope, byte[] payload) {
+        byte[] digest = mac.newHasher()
+                .putString(scope, StandardCharsets.UTF_8)
+                .putByte((byte) 0)
+                .putBytes(payload)
+                .hash()
+                .asBytes();
+        return Arrays.copyOf(digest, MAC_BYTES);
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(ExceptionPayloadFactory.INVALID_CURSOR.get());
+    }
+}
@@ -0,0 +1,83 @@
+package com.unipay.utils;
+
+import com.unipay.exception.BusinessException;
+import com.unipay.exception.ExceptionPayloadFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields a listing can return, for use with a {@code fields=} request parameter.
+ *
+ * <p>Each field name maps to an entity attribute path such as {@code username} or
+ * {@code profile.fullName}. Paths may only go through to-one associations, so selecting a field never
+ * multiplies rows. {@link SparseFieldsetQuery} selects exactly the requested paths in a tuple query.</p>
+ */
+public final class FieldSet {
+
+    public static final String ID = "id";
+
+    private final Map<String, String> paths;
+    private final List<String> defaults;
+
+    private FieldSet(Map<String, String> paths, List<String> defaults) {
+        this.paths = paths;
+        this.defaults = defaults;
+    }
+
+    /**
+     * @param paths    field name to entity attribute path, in response order; must contain {@code id}
+     * @param defaults the fields returned when none are requested
+     */
+    public static FieldSet of(Map<String, String> paths, List<String> defaults) {
+        if (!paths.containsKey(ID) || !paths.keySet().containsAll(defaults)) {
+            throw new IllegalArgumentException("Field set must contain id and its default fields");
+        }
+        return new FieldSet(new LinkedHashMap<>(paths), List.copyOf(defaults));
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter.
+     *
+     * @return the requested fields in field set order, always including {@code id}; the defaults when
+     *         {@code fields} is null or blank
+     * @throws BusinessException {@link ExceptionPayloadFactory#INVALID_FIELDS} for an unknown field
+     */
+    public List<String> select(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return withId(defaults);
+        }
+        List<String> requested = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!paths.containsKey(name)) {
+                throw new BusinessException(ExceptionPayloadFactory.INVALID_FIELDS.get());
+            }
+            requested.add(name);
+        }
+        return withId(requested);
+    }
+
+    /**
+     * @return the attribute path of a field
+     * @throws BusinessException {@link ExceptionPayloadFactory#INVALID_FIELDS} for an unknown field
+     */
+    public String path(String field) {
+        String path = paths.get(field);
+        if (path == null) {
+            throw new BusinessException(ExceptionPayloadFactory.INVALID_FIELDS.get());
+        }
+        return path;
+    }
+
+    private List<String> withId(List<String> fields) {
+        return paths.keySet().stream()
+                .filter(name -> name.equals(ID) || fields.contains(name))
+                .toList();
+    }
+}
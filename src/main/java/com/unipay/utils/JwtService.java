@@ -1,25 +1,33 @@
 package com.unipay.utils;
 
 import com.unipay.enums.UserStatus;
+import com.unipay.payload.AuthoritySet;
 import com.unipay.payload.UserDetailsImpl;
+import com.unipay.payload.VerifiedClaims;
+import com.unipay.security.JwtVerificationCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private static final String AUTHORITIES_CLAIM = "authz";
+    private static final String LEGACY_AUTHORITIES_CLAIM = "authorities";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -32,8 +40,20 @@ public class JwtService {
     @Value("${jwt.expiration-ms}")
     private int expirationMs;
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final JwtVerificationCache verificationCache;
+
+    private Key signingKey;
+    private JwtParser parser;
+
+    /**
+     * Builds the HMAC key and parser once; both are immutable and thread-safe.
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateJwtToken(Authentication authentication, String sessionId) {
@@ -44,79 +64,130 @@ public class JwtService {
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .claim("sessionId", sessionId)
-                .claim("authorities", userPrincipal.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority).collect(Collectors.toList()))
-                .claim("userStatus", userPrincipal.getUser().getStatus().name())
+                .claim(AUTHORITIES_CLAIM, userPrincipal.getAuthoritySet().encode())
+                .claim("userStatus", userPrincipal.getStatus().name())
                 .setIssuer("UniPay")
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(key(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
 
-    public String getUsernameFromToken(String token) {
-        return parseToken(token).getBody().getSubject();
-    }
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies signature, expiry and the {@code userStatus} claim exactly once per token.
+     * Successful results are cached, so repeated requests with the same bearer token skip
+     * signature verification until the cache entry or the token itself expires.
+     *
+     * @param token the compact JWT
+     * @return the verified claims, or empty if the token is malformed, expired, or not issued to an active user
+     */
+    public Optional<VerifiedClaims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<VerifiedClaims> cached = verificationCache.get(token);
+        if (cached.isPresent()) {
+            return cached;
+        }
         try {
-            Claims claims = parseToken(authToken).getBody();
+            Optional<VerifiedClaims> verified = toVerifiedClaims(parser.parseClaimsJws(token).getBody());
+            verified.ifPresent(claims -> verificationCache.put(token, claims));
+            return verified;
+        } catch (ExpiredJwtException ex) {
+            log.warn("Expired JWT token: {}", ex.getMessage());
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
+        }
+        return Optional.empty();
+    }
 
-            // Ensure token not expired by JJWT itself
-            Date expiration = claims.getExpiration();
-            if (expiration.before(new Date())) {
-                log.warn("Expired JWT token: expiration {}", expiration);
-                return false;
-            }
+    private Optional<VerifiedClaims> toVerifiedClaims(Claims claims) {
+        // Ensure token not expired by JJWT itself
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.before(new Date())) {
+            log.warn("Expired JWT token: expiration {}", expiration);
+            return Optional.empty();
+        }
 
-            // Safely extract userStatus claim
-            Object statusObj = claims.get("userStatus");
-            if (!(statusObj instanceof String statusStr)) {
-                log.warn("Missing or invalid 'userStatus' claim: {}", statusObj);
-                return false;
-            }
+        // Safely extract userStatus claim
+        Object statusObj = claims.get("userStatus");
+        if (!(statusObj instanceof String statusStr)) {
+            log.warn("Missing or invalid 'userStatus' claim: {}", statusObj);
+            return Optional.empty();
+        }
 
-            try {
-                UserStatus tokenStatus = UserStatus.valueOf(statusStr);
-                if (tokenStatus != UserStatus.ACTIVE) {
-                    log.warn("Token created with non-active status: {}", tokenStatus);
-                    return false;
-                }
-            } catch (IllegalArgumentException iae) {
-                log.warn("Unknown userStatus value in token: {}", statusStr);
-                return false;
-            }
+        UserStatus tokenStatus;
+        try {
+            tokenStatus = UserStatus.valueOf(statusStr);
+        } catch (IllegalArgumentException iae) {
+            log.warn("Unknown userStatus value in token: {}", statusStr);
+            return Optional.empty();
+        }
+        if (tokenStatus != UserStatus.ACTIVE) {
+            log.warn("Token created with non-active status: {}", tokenStatus);
+            return Optional.empty();
+        }
 
-            return true;
+        AuthoritySet authorities = readAuthorities(claims);
+        if (authorities == null) {
+            log.warn("Missing or invalid '{}' claim", AUTHORITIES_CLAIM);
+            return Optional.empty();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return Optional.of(new VerifiedClaims(
+                claims.getSubject(),
+                claims.get("sessionId", String.class),
+                authorities,
+                tokenStatus,
+                issuedAt != null ? issuedAt.toInstant() : null,
+                expiration.toInstant()
+        ));
+    }
 
-        } catch (ExpiredJwtException ex) {
-            log.warn("Expired JWT token: {}", ex.getMessage());
-        } catch (JwtException | IllegalArgumentException ex) {
-            log.error("Invalid JWT token: {}", ex.getMessage());
+    /**
+     * Decodes the compact {@code authz} claim, falling back to the legacy {@code authorities}
+     * name list for tokens issued before the bitmask encoding.
+     */
+    private AuthoritySet readAuthorities(Claims claims) {
+        Object encoded = claims.get(AUTHORITIES_CLAIM);
+        if (encoded instanceof String value) {
+            try {
+                return AuthoritySet.decode(value);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+        Object legacy = claims.get(LEGACY_AUTHORITIES_CLAIM);
+        if (legacy instanceof List<?> names) {
+            return AuthoritySet.fromAuthorityNames(names.stream().map(String::valueOf).toList());
         }
-        return false;
+        return null;
     }
 
-    private Jws<Claims> parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token);
+    public String getUsernameFromToken(String token) {
+        return requireVerified(token).subject();
+    }
+
+    public boolean validateToken(String authToken) {
+        return verify(authToken).isPresent();
     }
 
     public Date getExpirationFromToken(String token) {
-        return parseToken(token).getBody().getExpiration();
+        return Date.from(requireVerified(token).expiresAt());
     }
 
     public List<String> getAuthoritiesFromToken(String token) {
-        return parseToken(token).getBody().get("authorities", List.class);
+        return requireVerified(token).authorities().toAuthorityNames();
     }
     /**
      * Pulls the session‐ID claim out of the JWT.
      */
     public String getSessionIdFromToken(String token) {
-        return parseToken(token)
-                .getBody()
-                .get("sessionId", String.class);
+        return requireVerified(token).sessionId();
+    }
+
+    private VerifiedClaims requireVerified(String token) {
+        return verify(token).orElseThrow(() -> new JwtException("Invalid or expired JWT token"));
     }
-}
\ No newline at end of file
+}
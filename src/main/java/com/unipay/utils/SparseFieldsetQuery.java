@@ -0,0 +1,218 @@
+package com.unipay.utils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Runs listings as tuple queries that select only the fields a client asked for.
+ *
+ * <p>The requested fields of a {@link FieldSet} become a single {@code SELECT} of their columns, with one
+ * {@code LEFT JOIN} per to-one association on the way; a path ending in {@code .id} reads the foreign key
+ * without a join. No entity is loaded, so nothing is lazily loaded either, and a page costs one query
+ * (plus a count) however much history each row has. Rows are returned as maps from field name to value,
+ * in field set order.</p>
+ */
+@Component
+public class SparseFieldsetQuery {
+
+    private static final String CREATED_AT = "createdAt";
+    /** Alias of the keyset column in {@link #scroll}; not a field name, so never part of a row. */
+    private static final String CURSOR_CREATED_AT = "_cursorCreatedAt";
+
+    private final EntityManager entityManager;
+
+    public SparseFieldsetQuery(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns one offset page of the rows matching the specification; sort properties must be fields of
+     * the field set.
+     */
+    public <T> Page<Map<String, Object>> findPage(Class<T> type, FieldSet fieldSet, List<String> fields,
+                                                  Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        select(query, root, joins, fieldSet, fields);
+        where(query, root, cb, specification, null);
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            Path<?> path = resolve(root, joins, fieldSet.path(order.getProperty()));
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = toRows(typed.getResultList(), fields);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(type, specification));
+    }
+
+    /**
+     * Returns one keyset slice of the rows matching the specification, newest first by
+     * {@code (createdAt, id)}, continuing after {@code position}.
+     */
+    public <T> Window<Map<String, Object>> scroll(Class<T> type, FieldSet fieldSet, List<String> fields,
+                                                  Specification<T> specification, KeysetScrollPosition position,
+                                                  Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        List<Selection<?>> selections = select(query, root, new HashMap<>(), fieldSet, fields);
+        selections.add(root.get(CREATED_AT).alias(CURSOR_CREATED_AT));
+        query.multiselect(selections);
+
+        Predicate after = null;
+        Map<String, Object> keys = position.getKeys();
+        if (!keys.isEmpty()) {
+            Path<LocalDateTime> createdAt = root.get(CREATED_AT);
+            Path<String> id = root.get(FieldSet.ID);
+            LocalDateTime lastCreatedAt = (LocalDateTime) keys.get(CREATED_AT);
+            after = cb.or(cb.lessThan(createdAt, lastCreatedAt),
+                    cb.and(cb.equal(createdAt, lastCreatedAt), cb.lessThan(id, (String) keys.get(FieldSet.ID))));
+        }
+        where(query, root, cb, specification, after);
+        query.orderBy(cb.desc(root.get(CREATED_AT)), cb.desc(root.get(FieldSet.ID)));
+
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit.max() + 1).getResultList();
+        boolean hasNext = tuples.size() > limit.max();
+        List<Tuple> slice = hasNext ? tuples.subList(0, limit.max()) : tuples;
+        return Window.from(toRows(slice, fields), index -> {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put(CREATED_AT, slice.get(index).get(CURSOR_CREATED_AT));
+            key.put(FieldSet.ID, slice.get(index).get(FieldSet.ID));
+            return ScrollPosition.forward(key);
+        }, hasNext);
+    }
+
+    /**
+     * Returns up to {@code limit} rows matching the specification, in the order {@code ordering} builds.
+     */
+    public <T> List<Map<String, Object>> findList(Class<T> type, FieldSet fieldSet, List<String> fields,
+                                                  Specification<T> specification, Ordering<T> ordering, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        select(query, root, new HashMap<>(), fieldSet, fields);
+        where(query, root, cb, specification, null);
+        query.orderBy(ordering.toOrders(root, cb));
+        return toRows(entityManager.createQuery(query).setMaxResults(limit).getResultList(), fields);
+    }
+
+    /**
+     * Returns the single row matching the specification, if any.
+     */
+    public <T> Optional<Map<String, Object>> findOne(Class<T> type, FieldSet fieldSet, List<String> fields,
+                                                     Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        select(query, root, new HashMap<>(), fieldSet, fields);
+        where(query, root, cb, specification, null);
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(1).getResultList();
+        return tuples.isEmpty() ? Optional.empty() : Optional.of(toRows(tuples, fields).get(0));
+    }
+
+    private <T> long count(Class<T> type, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root));
+        where(query, root, cb, specification, null);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Selection<?>> select(CriteriaQuery<Tuple> query, Root<?> root, Map<String, From<?, ?>> joins,
+                                             FieldSet fieldSet, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        for (String field : fields) {
+            selections.add(resolve(root, joins, fieldSet.path(field)).alias(field));
+        }
+        query.multiselect(selections);
+        return selections;
+    }
+
+    private static <T> void where(CriteriaQuery<?> query, Root<T> root, CriteriaBuilder cb,
+                                  Specification<T> specification, Predicate extra) {
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null && extra != null) {
+            query.where(predicate, extra);
+        } else if (predicate != null || extra != null) {
+            query.where(predicate != null ? predicate : extra);
+        }
+    }
+
+    /**
+     * Resolves a dotted attribute path, left-joining each association once; a trailing {@code id} after an
+     * association reads the foreign key column instead of joining.
+     */
+    private static Path<?> resolve(Root<?> root, Map<String, From<?, ?>> joins, String path) {
+        String[] segments = path.split("\\.");
+        From<?, ?> from = root;
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (i == segments.length - 2 && segments[i + 1].equals(FieldSet.ID)) {
+                return from.get(segments[i]).get(FieldSet.ID);
+            }
+            prefix.append(segments[i]).append('.');
+            From<?, ?> parent = from;
+            String attribute = segments[i];
+            from = joins.computeIfAbsent(prefix.toString(), key -> parent.join(attribute, JoinType.LEFT));
+        }
+        return from.get(segments[segments.length - 1]);
+    }
+
+    private static List<Map<String, Object>> toRows(List<Tuple> tuples, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Builds the {@code ORDER BY} of {@link #findList} from the query root, for orderings that are not
+     * plain field sorts.
+     */
+    @FunctionalInterface
+    public interface Ordering<T> {
+        List<Order> toOrders(Root<T> root, CriteriaBuilder cb);
+    }
+}
@@ -0,0 +1,60 @@
+package com.unipay.utils;
+
+import com.unipay.models.User;
+import com.unipay.models.User_;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Matches and ranks users for the user search.
+ *
+ * <p>Terms of at least {@link #MIN_SUBSTRING_LENGTH} characters match a case-insensitive substring of the
+ * username or email; shorter terms have no trigram to look up and match prefixes only. Both filter on
+ * {@code lower(column) LIKE ...}, the expressions indexed by
+ * {@link com.unipay.service.search.UserSearchIndexService}. Exact matches rank first, then prefix matches,
+ * then shorter usernames.</p>
+ */
+public class UserSearchSpecification implements Specification<User>, SparseFieldsetQuery.Ordering<User> {
+
+    /** Shortest term matched as a substring. */
+    public static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private final String term;
+    private final String pattern;
+    private final String prefix;
+
+    public UserSearchSpecification(String query) {
+        this.term = query.strip().toLowerCase();
+        this.prefix = UserSpecification.prefixPattern(term);
+        this.pattern = term.length() >= MIN_SUBSTRING_LENGTH ? UserSpecification.containsPattern(term) : prefix;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<User> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return matches(root, cb, pattern);
+    }
+
+    @Override
+    public List<Order> toOrders(Root<User> root, CriteriaBuilder cb) {
+        Expression<String> username = cb.lower(root.get(User_.username));
+        Expression<String> email = cb.lower(root.get(User_.email));
+        Expression<Integer> rank = cb.<Integer>selectCase()
+                .when(cb.or(cb.equal(username, term), cb.equal(email, term)), 0)
+                .when(matches(root, cb, prefix), 1)
+                .otherwise(2);
+        return List.of(cb.asc(rank), cb.asc(cb.length(root.get(User_.username))), cb.asc(root.get(FieldSet.ID)));
+    }
+
+    private static Predicate matches(Root<User> root, CriteriaBuilder cb, String likePattern) {
+        return cb.or(
+                cb.like(cb.lower(root.get(User_.username)), likePattern, UserSpecification.LIKE_ESCAPE),
+                cb.like(cb.lower(root.get(User_.email)), likePattern, UserSpecification.LIKE_ESCAPE));
+    }
+}
@@ -8,8 +8,18 @@ import org.springframework.data.jpa.domain.Specification;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Filters users by {@link UserCriteria}.
+ *
+ * <p>Username and email match case-insensitive substrings as {@code lower(column) LIKE '%term%'}, the
+ * shape served by the trigram indexes that {@link com.unipay.service.search.UserSearchIndexService}
+ * creates; LIKE wildcards in the term are matched literally. The profile is joined at most once.</p>
+ */
 public class UserSpecification implements Specification<User> {
 
+    /** Escape character for {@link #containsPattern(String)}; the PostgreSQL default for LIKE. */
+    public static final char LIKE_ESCAPE = '\\';
+
     private final UserCriteria criteria;
 
     public UserSpecification(UserCriteria criteria) {
@@ -21,11 +31,11 @@ public class UserSpecification implements Specification<User> {
         List<Predicate> predicates = new ArrayList<>();
 
         if (criteria.getUsername() != null && !criteria.getUsername().isEmpty()) {
-            predicates.add(cb.like(cb.lower(root.get(User_.username)), "%" + criteria.getUsername().toLowerCase() + "%"));
+            predicates.add(cb.like(cb.lower(root.get(User_.username)), containsPattern(criteria.getUsername()), LIKE_ESCAPE));
         }
 
         if (criteria.getEmail() != null && !criteria.getEmail().isEmpty()) {
-            predicates.add(cb.like(cb.lower(root.get(User_.email)), "%" + criteria.getEmail().toLowerCase() + "%"));
+            predicates.add(cb.like(cb.lower(root.get(User_.email)), containsPattern(criteria.getEmail()), LIKE_ESCAPE));
         }
 
         if (criteria.getStatus() != null) {
@@ -37,18 +47,43 @@ public class UserSpecification implements Specification<User> {
             predicates.add(cb.equal(rolesJoin.get("role").get("name"), criteria.getRoleName()));
         }
 
-
-        if (criteria.getDateOfBirthFrom() != null) {
+        if (criteria.getDateOfBirthFrom() != null || criteria.getDateOfBirthTo() != null) {
             Join<User, UserProfile> profileJoin = root.join(User_.profile, JoinType.INNER);
-            predicates.add(cb.greaterThanOrEqualTo(profileJoin.get(UserProfile_.dateOfBirth), criteria.getDateOfBirthFrom()));
-        }
-
-        if (criteria.getDateOfBirthTo() != null) {
-            Join<User, UserProfile> profileJoin = root.join(User_.profile, JoinType.INNER);
-            predicates.add(cb.lessThanOrEqualTo(profileJoin.get(UserProfile_.dateOfBirth), criteria.getDateOfBirthTo()));
+            if (criteria.getDateOfBirthFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(profileJoin.get(UserProfile_.dateOfBirth), criteria.getDateOfBirthFrom()));
+            }
+            if (criteria.getDateOfBirthTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(profileJoin.get(UserProfile_.dateOfBirth), criteria.getDateOfBirthTo()));
+            }
         }
 
         return cb.and(predicates.toArray(new Predicate[0]));
     }
-}
 
+    /**
+     * Returns {@code %term%} for a case-insensitive substring match, with {@code %}, {@code _} and the
+     * escape character in the term escaped.
+     */
+    public static String containsPattern(String term) {
+        return "%" + escapeLike(term.toLowerCase()) + "%";
+    }
+
+    /**
+     * Returns {@code term%} for a case-insensitive prefix match, escaped like {@link #containsPattern(String)}.
+     */
+    public static String prefixPattern(String term) {
+        return escapeLike(term.toLowerCase()) + "%";
+    }
+
+    private static String escapeLike(String term) {
+        StringBuilder escaped = new StringBuilder(term.length() + 4);
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.unipay.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562).
+ *
+ * <p>The first 48 bits are the Unix epoch in milliseconds and the 12 bits after the version are a
+ * counter that is reset every millisecond, so IDs generated by one process sort in creation order and new
+ * rows land at the right-hand edge of a primary-key B-tree instead of on a random leaf. The remaining 62
+ * bits come from {@link SecureRandom}, as with {@link UUID#randomUUID()}. If more than 4096 IDs are
+ * requested within a millisecond, the counter carries into the timestamp rather than breaking the
+ * ordering.</p>
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST_TICK = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID randomUuid() {
+        long tick = nextTick();
+        long mostSigBits = (tick >>> 12) << 16 | 0x7000L | (tick & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static String randomString() {
+        return randomUuid().toString();
+    }
+
+    /**
+     * @return the epoch millisecond shifted left by 12 bits plus the per-millisecond counter
+     */
+    private static long nextTick() {
+        long now = System.currentTimeMillis() << 12;
+        while (true) {
+            long last = LAST_TICK.get();
+            long next = now > last ? now : last + 1;
+            if (LAST_TICK.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
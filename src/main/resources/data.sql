@@ -1,3 +1,17 @@
+-- At most one non-revoked session per user and device (used by the session find-or-create upsert).
+-- Sessions created before the index existed may break that rule; keep the one expiring last and revoke the rest.
+UPDATE user_sessions SET revoked = true
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id, row_number() OVER (PARTITION BY user_id, device_id ORDER BY expires_at DESC NULLS LAST, id DESC) AS rn
+        FROM user_sessions
+        WHERE revoked = false AND device_id IS NOT NULL
+    ) ranked
+    WHERE ranked.rn > 1
+);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_session_active_device
+    ON user_sessions (user_id, device_id) WHERE revoked = false;
+
 -- Insert Roles (skip if UUID/role already exists)
 INSERT INTO roles (id, name, description, created_at, updated_at, is_deleted)
 VALUES
@@ -14,7 +28,10 @@ VALUES
     ('aaaaaaa3-aaaa-aaaa-aaaa-aaaaaaaaaaa3', 'VIEW_ORDERS', 'View Orders', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false),
     ('aaaaaaa4-aaaa-aaaa-aaaa-aaaaaaaaaaa4', 'CREATE_ORDER', 'Create Order', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false),
     ('aaaaaaa5-aaaa-aaaa-aaaa-aaaaaaaaaaa5', 'MANAGE_USERS', 'Manage Users', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false),
-    ('aaaaaaa6-aaaa-aaaa-aaaa-aaaaaaaaaaa6', 'VIEW_DASHBOARD', 'View Dashboard', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false)
+    ('aaaaaaa6-aaaa-aaaa-aaaa-aaaaaaaaaaa6', 'VIEW_DASHBOARD', 'View Dashboard', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false),
+    ('aaaaaaa7-aaaa-aaaa-aaaa-aaaaaaaaaaa7', 'IMPORT_DATA', 'Import Data', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false),
+    ('aaaaaaa8-aaaa-aaaa-aaaa-aaaaaaaaaaa8', 'EXPORT_DATA', 'Export Data', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false),
+    ('aaaaaaa9-aaaa-aaaa-aaaa-aaaaaaaaaaa9', 'VIEW_METRICS', 'View Metrics', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false)
 ON CONFLICT (id) DO NOTHING;
 
 -- Associate Permissions with Roles (skip existing pairs)
@@ -22,7 +39,10 @@ ON CONFLICT (id) DO NOTHING;
 INSERT INTO role_permissions (role_id, permission_id)
 VALUES
     ('11111111-1111-1111-1111-111111111111', 'aaaaaaa5-aaaa-aaaa-aaaa-aaaaaaaaaaa5'),
-    ('11111111-1111-1111-1111-111111111111', 'aaaaaaa6-aaaa-aaaa-aaaa-aaaaaaaaaaa6')
+    ('11111111-1111-1111-1111-111111111111', 'aaaaaaa6-aaaa-aaaa-aaaa-aaaaaaaaaaa6'),
+    ('11111111-1111-1111-1111-111111111111', 'aaaaaaa7-aaaa-aaaa-aaaa-aaaaaaaaaaa7'),
+    ('11111111-1111-1111-1111-111111111111', 'aaaaaaa8-aaaa-aaaa-aaaa-aaaaaaaaaaa8'),
+    ('11111111-1111-1111-1111-111111111111', 'aaaaaaa9-aaaa-aaaa-aaaa-aaaaaaaaaaa9')
 ON CONFLICT (role_id, permission_id) DO NOTHING;
 
 -- USER Role
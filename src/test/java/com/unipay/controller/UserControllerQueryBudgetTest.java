@@ -0,0 +1,118 @@
+package com.unipay.controller;
+
+import com.unipay.config.SqlMetricsConfig;
+import com.unipay.enums.RoleName;
+import com.unipay.enums.UserStatus;
+import com.unipay.models.Role;
+import com.unipay.models.User;
+import com.unipay.models.UserProfile;
+import com.unipay.models.UserRole;
+import com.unipay.repository.UserRepository;
+import com.unipay.service.user.UserServiceImpl;
+import com.unipay.utils.CursorCodec;
+import com.unipay.utils.SparseFieldsetQuery;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+
+import static com.unipay.monitoring.SqlStatementAssertions.assertMaxQueries;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds the user listing to a fixed number of SQL statements however many users a page returns, so an
+ * N+1 regression fails the build.
+ */
+@DataJpaTest(properties = {
+        "sql-metrics.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(SqlMetricsConfig.class)
+class UserControllerQueryBudgetTest {
+
+    private static final int USERS = 25;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName(RoleName.USER);
+        role.setDescription("Standard user role");
+        role.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(role);
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(user(i, role));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        UserServiceImpl userService = new UserServiceImpl(userRepository, null, null, null,
+                mock(CursorCodec.class), new SparseFieldsetQuery(entityManager), null, null, null, null);
+        UserController controller = new UserController(userService, null, null, null, null, null, null, null);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    void listingIsOneSelectAndOneCount() {
+        assertMaxQueries(2, () -> perform("/v1/users?size=10&fields=username,email,fullName&sort=username"));
+    }
+
+    @Test
+    void fullPageDoesNotLoadAssociations() {
+        assertMaxQueries(1, () -> perform("/v1/users?size=" + (USERS + 5) + "&fields=username,fullName,mfaEnabled"));
+    }
+
+    private void perform(String uri) {
+        try {
+            mockMvc.perform(get(uri))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].username").exists());
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static User user(int index, Role role) {
+        User user = new User();
+        user.setUsername("user" + index);
+        user.setEmail("user" + index + "@example.com");
+        user.setPasswordHash("hash");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(LocalDateTime.now());
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setFullName("User " + index);
+        profile.setCreatedAt(LocalDateTime.now());
+        user.setProfile(profile);
+
+        UserRole userRole = new UserRole();
+        userRole.setUser(user);
+        userRole.setRole(role);
+        userRole.setAssignedAt(LocalDateTime.now());
+        userRole.setCreatedAt(LocalDateTime.now());
+        user.getUserRoles().add(userRole);
+        return user;
+    }
+}
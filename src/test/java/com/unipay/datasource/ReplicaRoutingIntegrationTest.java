@@ -0,0 +1,137 @@
+package com.unipay.datasource;
+
+import com.unipay.config.ReplicaDataSourceConfig;
+import com.unipay.enums.RoleName;
+import com.unipay.models.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a request that reads in a read-only transaction and then writes, the shape of
+ * {@code POST /v1/businesses}, against two in-memory databases standing in for the primary and the replica.
+ */
+@DataJpaTest(properties = {
+        "datasource.replica.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(TransactionManagerCustomizationAutoConfiguration.class)
+@Import({ReplicaDataSourceConfig.class, ReplicaRoutingIntegrationTest.MetricsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingIntegrationTest {
+
+    @MockitoBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    @BeforeEach
+    void setUp() {
+        when(replicaLagMonitor.isReplicaUsable()).thenReturn(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM roles");
+    }
+
+    @Test
+    void openInViewIsOffWithReplicaRouting() {
+        assertFalse(openInView);
+    }
+
+    @Test
+    void writeAfterReadOnlyTransactionRunsOnThePrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        String readFrom = readOnly.execute(status -> currentDatabase());
+
+        String writtenTo = new TransactionTemplate(transactionManager).execute(status -> {
+            Role role = new Role();
+            role.setName(RoleName.USER);
+            role.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(role);
+            entityManager.flush();
+            return currentDatabase();
+        });
+
+        assertEquals("REPLICA", readFrom);
+        assertEquals("PRIMARY", writtenTo);
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM roles", Integer.class));
+    }
+
+    @Test
+    void readAfterWriteInTheSameRequestStaysOnThePrimary() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Role role = new Role();
+            role.setName(RoleName.ADMIN);
+            role.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(role);
+        });
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertEquals("PRIMARY", readOnly.execute(status -> currentDatabase()));
+    }
+
+    private String currentDatabase() {
+        return (String) entityManager.createNativeQuery("SELECT CURRENT_CATALOG").getSingleResult();
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
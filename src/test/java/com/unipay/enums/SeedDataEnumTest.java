@@ -0,0 +1,62 @@
+package com.unipay.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every role and permission seeded by {@code data.sql} has an enum constant, since both names
+ * are mapped with {@code EnumType.STRING} and an unknown name fails startup.
+ */
+class SeedDataEnumTest {
+
+    private static final Pattern ROW_NAME = Pattern.compile("\\(\\s*'[0-9a-f-]+'\\s*,\\s*'([A-Z_]+)'");
+
+    @Test
+    void seededPermissionsArePermissionNames() throws IOException {
+        List<String> names = seededNames("permissions");
+        assertFalse(names.isEmpty(), "no permissions seeded");
+        for (String name : names) {
+            assertTrue(isConstant(PermissionName.values(), name), "data.sql seeds unknown permission " + name);
+        }
+    }
+
+    @Test
+    void seededRolesAreRoleNames() throws IOException {
+        List<String> names = seededNames("roles");
+        assertFalse(names.isEmpty(), "no roles seeded");
+        for (String name : names) {
+            assertTrue(isConstant(RoleName.values(), name), "data.sql seeds unknown role " + name);
+        }
+    }
+
+    private static List<String> seededNames(String table) throws IOException {
+        String sql;
+        try (InputStream in = SeedDataEnumTest.class.getResourceAsStream("/data.sql")) {
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> names = new ArrayList<>();
+        Matcher insert = Pattern.compile("INSERT INTO " + table + "\\s*\\(([^;]*);").matcher(sql);
+        while (insert.find()) {
+            Matcher row = ROW_NAME.matcher(insert.group(1));
+            while (row.find()) {
+                names.add(row.group(1));
+            }
+        }
+        return names;
+    }
+
+    private static boolean isConstant(Enum<?>[] constants, String name) {
+        return Arrays.stream(constants).anyMatch(constant -> constant.name().equals(name));
+    }
+}
@@ -0,0 +1,43 @@
+package com.unipay.monitoring;
+
+import java.util.function.Supplier;
+
+/**
+ * Query-budget assertions for tests, backed by {@link SqlStatementStats}.
+ *
+ * <p>Only statements on the calling thread are counted, and only when {@code sql-metrics.enabled=true}
+ * installs the {@link StatementCountingDataSource}.</p>
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * Runs {@code work} and fails with an {@link AssertionError} listing the executed statements if it ran
+     * more than {@code maxStatements}.
+     */
+    public static <T> T assertMaxQueries(int maxStatements, Supplier<T> work) {
+        T result;
+        SqlStatementStats stats;
+        try (SqlStatementStats scope = SqlStatementStats.open()) {
+            result = work.get();
+            stats = scope;
+        }
+        if (stats.getStatements() > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                    + stats.getStatements() + " were executed:\n" + stats.describeTop(Integer.MAX_VALUE));
+        }
+        return result;
+    }
+
+    /**
+     * @see #assertMaxQueries(int, Supplier)
+     */
+    public static void assertMaxQueries(int maxStatements, Runnable work) {
+        assertMaxQueries(maxStatements, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.unipay.payload;
+
+import com.unipay.enums.PermissionName;
+import com.unipay.enums.RoleName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthoritySetTest {
+
+    @Test
+    void roundTripsEveryRoleAndPermission() {
+        AuthoritySet all = AuthoritySet.of(EnumSet.allOf(RoleName.class), EnumSet.allOf(PermissionName.class));
+
+        AuthoritySet decoded = AuthoritySet.decode(all.encode());
+
+        assertEquals(all, decoded);
+        assertEquals(EnumSet.allOf(RoleName.class), decoded.roles());
+        assertEquals(EnumSet.allOf(PermissionName.class), decoded.permissions());
+    }
+
+    @Test
+    void roundTripsEachConstantOnItsOwn() {
+        for (RoleName role : RoleName.values()) {
+            AuthoritySet set = AuthoritySet.of(Set.of(role), Set.of());
+            assertEquals(Set.of(role), AuthoritySet.decode(set.encode()).roles());
+        }
+        for (PermissionName permission : PermissionName.values()) {
+            AuthoritySet set = AuthoritySet.of(Set.of(), Set.of(permission));
+            assertEquals(Set.of(permission), AuthoritySet.decode(set.encode()).permissions());
+        }
+    }
+
+    @Test
+    void roundTripsTheEmptySet() {
+        AuthoritySet decoded = AuthoritySet.decode(AuthoritySet.EMPTY.encode());
+
+        assertTrue(decoded.isEmpty());
+        assertEquals(AuthoritySet.EMPTY, decoded);
+    }
+
+    /**
+     * Pins the wire format: if a constant is inserted or reordered, tokens already issued decode
+     * to different authorities and this fails.
+     */
+    @Test
+    void decodesAPreviouslyIssuedValue() {
+        AuthoritySet decoded = AuthoritySet.decode("AQECAw");
+
+        assertEquals(Set.of(RoleName.ADMIN), decoded.roles());
+        assertEquals(Set.of(PermissionName.VIEW_PROFILE, PermissionName.UPDATE_PROFILE), decoded.permissions());
+    }
+
+    @Test
+    void fromAuthorityNamesMatchesToAuthorityNames() {
+        AuthoritySet set = AuthoritySet.of(Set.of(RoleName.USER, RoleName.CLIENT),
+                Set.of(PermissionName.VIEW_PROFILE, PermissionName.VIEW_METRICS));
+
+        assertEquals(set, AuthoritySet.fromAuthorityNames(set.toAuthorityNames()));
+    }
+
+    @Test
+    void fromAuthorityNamesIgnoresUnknownNames() {
+        AuthoritySet set = AuthoritySet.fromAuthorityNames(List.of("ROLE_ADMIN", "ROLE_GONE", "GONE", "VIEW_PROFILE"));
+
+        assertEquals(Set.of(RoleName.ADMIN), set.roles());
+        assertEquals(Set.of(PermissionName.VIEW_PROFILE), set.permissions());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",        // no bytes
+            "AQ",      // version only
+            "AgA",     // unknown format version 2
+            "AQUA",    // role byte count 5 with no role bytes
+            "Af8",     // negative role byte count
+            "AQ=E",    // not base64url
+            "AQ+/AA"   // standard base64 alphabet
+    })
+    void rejectsMalformedValues(String encoded) {
+        assertThrows(IllegalArgumentException.class, () -> AuthoritySet.decode(encoded));
+    }
+}
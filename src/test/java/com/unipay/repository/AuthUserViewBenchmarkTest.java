@@ -0,0 +1,143 @@
+package com.unipay.repository;
+
+import com.unipay.config.SqlMetricsConfig;
+import com.unipay.enums.RoleName;
+import com.unipay.enums.UserStatus;
+import com.unipay.models.Role;
+import com.unipay.models.User;
+import com.unipay.models.UserProfile;
+import com.unipay.models.UserRole;
+import com.unipay.monitoring.SqlStatementStats;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the per-login cost of {@link UserRepository#findByEmail} (the full {@link User} entity graph) with
+ * {@link UserRepository#findAuthViewByEmail} (the scalar projection the authentication path uses).
+ *
+ * <p>Each lookup runs against a cleared persistence context, as it would in a fresh request. The default
+ * run fails if the projection costs more SQL statements or allocates more heap per lookup. Timings depend
+ * on the machine, so the timed comparison is tagged {@code benchmark}, runs only with
+ * {@code mvn test -Pbenchmark}, and is logged.</p>
+ */
+@DataJpaTest(properties = {
+        "sql-metrics.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Slf4j
+@Import(SqlMetricsConfig.class)
+class AuthUserViewBenchmarkTest {
+
+    private static final String EMAIL = "alice@example.com";
+    private static final int CHECK_WARMUP = 20;
+    private static final int CHECK_ITERATIONS = 100;
+    private static final int BENCHMARK_WARMUP = 500;
+    private static final int BENCHMARK_ITERATIONS = 2000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("alice");
+        user.setEmail(EMAIL);
+        user.setPasswordHash("hash");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(LocalDateTime.now());
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setFullName("Alice");
+        profile.setCreatedAt(LocalDateTime.now());
+        user.setProfile(profile);
+
+        for (RoleName name : RoleName.values()) {
+            Role role = new Role();
+            role.setName(name);
+            role.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(role);
+            UserRole userRole = new UserRole();
+            userRole.setUser(user);
+            userRole.setRole(role);
+            userRole.setAssignedAt(LocalDateTime.now());
+            userRole.setCreatedAt(LocalDateTime.now());
+            user.getUserRoles().add(userRole);
+        }
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void authViewIsCheaperThanEntityGraph() {
+        Result entity = measure(this::entityLookup, CHECK_WARMUP, CHECK_ITERATIONS);
+        Result view = measure(this::viewLookup, CHECK_WARMUP, CHECK_ITERATIONS);
+
+        assertTrue(view.statements() <= entity.statements(), "projection runs more statements");
+        assertTrue(view.bytes() < entity.bytes(), "projection allocates more");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void reportsCostPerLookup() {
+        Result entity = measure(this::entityLookup, BENCHMARK_WARMUP, BENCHMARK_ITERATIONS);
+        Result view = measure(this::viewLookup, BENCHMARK_WARMUP, BENCHMARK_ITERATIONS);
+
+        log.info("findByEmail: {}", entity);
+        log.info("findAuthViewByEmail: {}", view);
+    }
+
+    private void entityLookup() {
+        userRepository.findByEmail(EMAIL).orElseThrow().getUserRoles().size();
+    }
+
+    private void viewLookup() {
+        userRepository.findAuthViewByEmail(EMAIL).orElseThrow().roleIds().size();
+    }
+
+    private Result measure(Runnable lookup, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            lookup.run();
+            entityManager.clear();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        SqlStatementStats stats = SqlStatementStats.measure(() -> {
+            for (int i = 0; i < iterations; i++) {
+                lookup.run();
+                entityManager.clear();
+            }
+        });
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new Result((double) stats.getStatements() / iterations, bytes / iterations, nanos / iterations);
+    }
+
+    private record Result(double statements, long bytes, long nanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%.1f statements, %,d bytes, %,d ns per lookup", statements, bytes, nanos);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.unipay.security.fingerprint;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Client IP resolution from the socket peer and the {@code Forwarded} / {@code X-Forwarded-For} chain.
+ */
+class RequestFingerprintResolverTest {
+
+    private final RequestFingerprintResolver resolver = new RequestFingerprintResolver(
+            mock(UserAgentParser.class), List.of("10.0.0.0/8", " ::1 ", ""));
+
+    @Test
+    void untrustedPeerIgnoresForwardedHeaders() {
+        MockHttpServletRequest request = request("198.51.100.4");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+
+        assertEquals("198.51.100.4", resolver.resolveClientIp(request));
+    }
+
+    @Test
+    void spoofedLeftMostEntriesAreSkipped() {
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "6.6.6.6, 1.1.1.1, 203.0.113.7, 10.0.0.2");
+
+        assertEquals("203.0.113.7", resolver.resolveClientIp(request));
+    }
+
+    @Test
+    void allTrustedChainFallsBackToTheLeftMostHop() {
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "10.0.0.3, 10.0.0.2");
+
+        assertEquals("10.0.0.3", resolver.resolveClientIp(request));
+    }
+
+    @Test
+    void trustedPeerWithoutForwardedHeadersIsTheClient() {
+        assertEquals("10.0.0.1", resolver.resolveClientIp(request("10.0.0.1")));
+    }
+
+    @Test
+    void forwardedWithQuotedIpv6AndPorts() {
+        MockHttpServletRequest request = request("::1");
+        request.addHeader("Forwarded", "for=\"[2001:db8:cafe::17]:4711\";proto=https, for=\"10.0.0.2:8080\"");
+        request.addHeader("X-Forwarded-For", "198.51.100.4");
+
+        assertEquals("2001:db8:cafe::17", resolver.resolveClientIp(request));
+    }
+
+    @Test
+    void forwardedWithIpv4PortAndMixedCase() {
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("Forwarded", "For=198.51.100.4:80;by=10.0.0.1");
+
+        assertEquals("198.51.100.4", resolver.resolveClientIp(request));
+    }
+
+    @Test
+    void malformedAndObfuscatedHopsAreDropped() {
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "203.0.113.7, :::, 1.2.3, 999.1.1.1, 10.0.0.2, [::1");
+
+        assertEquals("203.0.113.7", resolver.resolveClientIp(request));
+    }
+
+    @Test
+    void forwardedObfuscatedIdentifiersAreDropped() {
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("Forwarded", "for=203.0.113.7, for=unknown, for=_hidden, for=\":::\"");
+
+        assertEquals("203.0.113.7", resolver.resolveClientIp(request));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,196 @@
+package com.unipay.service.session;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.unipay.models.User;
+import com.unipay.models.UserSession;
+import com.unipay.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link RedisUserSessionServiceImpl} against an in-process Redis-protocol server.
+ */
+class RedisUserSessionServiceImplTest {
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+    private RedisUserSessionServiceImpl sessionService;
+    private User user;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        server = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        user = new User();
+        user.setId("0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b");
+        user.setEmail("alice@example.com");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+        SessionValidityCache validityCache = new SessionValidityCache(
+                new LocalSessionInvalidationBus(), new SimpleMeterRegistry(), 1000, 5000);
+        sessionService = new RedisUserSessionServiceImpl(redisTemplate, validityCache,
+                mock(SessionAuditWriter.class), userRepository);
+    }
+
+    @Test
+    void createdSessionIsListedAndValid() {
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        UserSession session = sessionService.createSession(user, "device-1", "10.0.0.1", "agent", expiresAt);
+
+        List<UserSession> active = sessionService.getActiveSessions(user);
+        assertEquals(1, active.size());
+        assertEquals(session.getId(), active.get(0).getId());
+        assertEquals("device-1", active.get(0).getDeviceId());
+        assertEquals(expiresAt.toEpochMilli(), active.get(0).getExpiresAt().toEpochMilli());
+
+        SessionValidity validity = sessionService.validateAndRefreshSession(session.getId());
+        assertNotNull(validity);
+        assertEquals(user.getId(), validity.userId());
+        assertTrue(sessionService.hasActiveSessionForDevice(user, "device-1"));
+        assertFalse(sessionService.hasActiveSessionForDevice(user, "device-2"));
+    }
+
+    @Test
+    void unknownSessionIsInvalid() {
+        assertNull(sessionService.validateAndRefreshSession("0190a1b2-0000-7000-8000-000000000000"));
+    }
+
+    @Test
+    void revokeAllSessionsRemovesEverySession() {
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        UserSession first = sessionService.createSession(user, "device-1", null, null, expiresAt);
+        UserSession second = sessionService.createSession(user, "device-2", null, null, expiresAt);
+
+        sessionService.revokeAllSessions(user);
+
+        assertTrue(sessionService.getActiveSessions(user).isEmpty());
+        assertNull(sessionService.validateAndRefreshSession(first.getId()));
+        assertNull(sessionService.validateAndRefreshSession(second.getId()));
+    }
+
+    @Test
+    void revokeOtherSessionsKeepsTheCurrentOne() {
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        UserSession current = sessionService.createSession(user, "device-1", null, null, expiresAt);
+        UserSession other = sessionService.createSession(user, "device-2", null, null, expiresAt);
+
+        sessionService.revokeOtherSessions(user, current.getId());
+
+        List<UserSession> active = sessionService.getActiveSessions(user);
+        assertEquals(1, active.size());
+        assertEquals(current.getId(), active.get(0).getId());
+        assertNotNull(sessionService.validateAndRefreshSession(current.getId()));
+        assertNull(sessionService.validateAndRefreshSession(other.getId()));
+    }
+
+    @Test
+    void expiredSessionIsDroppedByRedis() throws InterruptedException {
+        UserSession session = sessionService.createSession(user, "device-1", null, null,
+                Instant.now().plusMillis(300));
+
+        Thread.sleep(600);
+
+        assertFalse(redisTemplate.hasKey("unipay:session:" + session.getId()));
+        assertNull(sessionService.validateAndRefreshSession(session.getId()));
+        assertTrue(sessionService.getActiveSessions(user).isEmpty());
+        assertEquals(0L, redisTemplate.opsForSet().size("unipay:user-sessions:" + user.getId()));
+    }
+
+    @Test
+    void findOrCreateReusesTheDeviceSession() {
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        SessionAcquisition first = sessionService.findOrCreateSession(user.getId(), "device-1", null, null, expiresAt);
+        SessionAcquisition second = sessionService.findOrCreateSession(user.getId(), "device-1", null, null, expiresAt);
+        SessionAcquisition otherDevice = sessionService.findOrCreateSession(user.getId(), "device-2", null, null, expiresAt);
+
+        assertTrue(first.created());
+        assertFalse(second.created());
+        assertEquals(first.sessionId(), second.sessionId());
+        assertTrue(otherDevice.created());
+
+        sessionService.revokeSession(first.sessionId());
+        SessionAcquisition afterRevoke = sessionService.findOrCreateSession(user.getId(), "device-1", null, null, expiresAt);
+        assertTrue(afterRevoke.created());
+    }
+
+    @Test
+    void concurrentFirstLoginsFromOneDeviceShareASession() throws Exception {
+        int logins = 8;
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(logins);
+        try {
+            List<Future<SessionAcquisition>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                Callable<SessionAcquisition> login = () -> {
+                    start.await();
+                    return sessionService.findOrCreateSession(user.getId(), "device-1", null, null, expiresAt);
+                };
+                results.add(executor.submit(login));
+            }
+            start.countDown();
+
+            Set<String> sessionIds = results.stream().map(future -> {
+                try {
+                    return future.get().sessionId();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }).collect(Collectors.toSet());
+            assertEquals(1, sessionIds.size());
+            assertEquals(1, sessionService.getActiveSessions(user).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
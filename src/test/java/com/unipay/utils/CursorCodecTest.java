@@ -0,0 +1,134 @@
+package com.unipay.utils;
+
+import com.unipay.exception.BusinessException;
+import com.unipay.exception.ExceptionPayloadFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorCodecTest {
+
+    private static final String SCOPE = "users";
+    private static final String ID = "0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_789);
+
+    private final CursorCodec codec = new CursorCodec("cursor-secret");
+
+    @Test
+    void roundTripsCreatedAtAndIdWithNanoseconds() {
+        KeysetScrollPosition position = codec.decode(SCOPE, cursor(SCOPE, CREATED_AT, ID), "createdAt");
+
+        assertEquals(Map.of("createdAt", CREATED_AT, "id", ID), position.getKeys());
+        assertEquals(123_456_789, ((LocalDateTime) position.getKeys().get("createdAt")).getNano());
+    }
+
+    @Test
+    void roundTripsTimestampsBeforeTheEpoch() {
+        LocalDateTime createdAt = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1);
+
+        KeysetScrollPosition position = codec.decode(SCOPE, cursor(SCOPE, createdAt, ID), "createdAt");
+
+        assertEquals(createdAt, position.getKeys().get("createdAt"));
+    }
+
+    @Test
+    void blankCursorStartsAtTheFirstSlice() {
+        assertTrue(codec.decode(SCOPE, null, "createdAt").isInitial());
+        assertTrue(codec.decode(SCOPE, " ", "createdAt").isInitial());
+    }
+
+    @Test
+    void lastSliceHasNoCursor() {
+        Window<Map<String, Object>> window = Window.from(List.of(Map.of()), index -> position(CREATED_AT, ID), false);
+
+        assertNull(codec.toPage(SCOPE, window, "createdAt", null).nextCursor());
+    }
+
+    @Test
+    void rejectsCursorFromAnotherScope() {
+        String cursor = cursor("audit-logs:" + ID, CREATED_AT, ID);
+
+        assertInvalid(() -> codec.decode("audit-logs:0190a1b2-0000-7000-8000-000000000000", cursor, "timestamp"));
+        assertInvalid(() -> codec.decode(SCOPE, cursor, "createdAt"));
+    }
+
+    @Test
+    void rejectsCursorSignedWithAnotherSecret() {
+        String cursor = cursor(SCOPE, CREATED_AT, ID);
+
+        assertInvalid(() -> new CursorCodec("other-secret").decode(SCOPE, cursor, "createdAt"));
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String cursor = cursor(SCOPE, CREATED_AT, ID);
+        int separator = cursor.indexOf('.');
+        byte[] payload = Base64.getUrlDecoder().decode(cursor.substring(0, separator));
+        payload[payload.length - 1] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(payload) + cursor.substring(separator);
+
+        assertInvalid(() -> codec.decode(SCOPE, tampered, "createdAt"));
+    }
+
+    @Test
+    void rejectsPayloadWithAnotherId() {
+        String cursor = cursor(SCOPE, CREATED_AT, ID);
+        String other = cursor(SCOPE, CREATED_AT, "0190a1b2-0000-7000-8000-000000000000");
+        String swapped = other.substring(0, other.indexOf('.')) + cursor.substring(cursor.indexOf('.'));
+
+        assertInvalid(() -> codec.decode(SCOPE, swapped, "createdAt"));
+    }
+
+    @Test
+    void rejectsTruncatedTokens() {
+        String cursor = cursor(SCOPE, CREATED_AT, ID);
+        int separator = cursor.indexOf('.');
+
+        assertInvalid(() -> codec.decode(SCOPE, cursor.substring(0, cursor.length() - 2), "createdAt"));
+        assertInvalid(() -> codec.decode(SCOPE, cursor.substring(0, separator + 1), "createdAt"));
+        assertInvalid(() -> codec.decode(SCOPE, cursor.substring(separator), "createdAt"));
+        assertInvalid(() -> codec.decode(SCOPE, cursor.substring(4), "createdAt"));
+    }
+
+    @Test
+    void rejectsTokenWithoutSeparator() {
+        String cursor = cursor(SCOPE, CREATED_AT, ID);
+
+        assertInvalid(() -> codec.decode(SCOPE, cursor.replace(".", ""), "createdAt"));
+        assertInvalid(() -> codec.decode(SCOPE, "bm90LWEtY3Vyc29y", "createdAt"));
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertInvalid(() -> codec.decode(SCOPE, "not base64.at all", "createdAt"));
+        assertInvalid(() -> codec.decode(SCOPE, ".", "createdAt"));
+        assertInvalid(() -> codec.decode(SCOPE, new String(new byte[]{(byte) 0xC3, '.'}, StandardCharsets.ISO_8859_1),
+                "createdAt"));
+    }
+
+    private String cursor(String scope, LocalDateTime createdAt, String id) {
+        Window<Map<String, Object>> window = Window.from(List.of(Map.of()), index -> position(createdAt, id), true);
+        return codec.toPage(scope, window, "createdAt", null).nextCursor();
+    }
+
+    private static ScrollPosition position(LocalDateTime createdAt, String id) {
+        return ScrollPosition.forward(Map.of("createdAt", createdAt, "id", id));
+    }
+
+    private static void assertInvalid(Runnable decode) {
+        BusinessException ex = assertThrows(BusinessException.class, decode::run);
+        assertEquals(ExceptionPayloadFactory.INVALID_CURSOR.get().getCode(), ex.getPayload().getCode());
+    }
+}
@@ -0,0 +1,111 @@
+package com.unipay.utils;
+
+import com.unipay.enums.PermissionName;
+import com.unipay.enums.RoleName;
+import com.unipay.enums.UserStatus;
+import com.unipay.payload.AuthoritySet;
+import com.unipay.payload.VerifiedClaims;
+import com.unipay.security.JwtVerificationCache;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reading the authorities of a verified token: the {@code authz} bitmask, and the {@code authorities}
+ * name list of tokens issued before it.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret-test-secret-0123";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new JwtVerificationCache(new SimpleMeterRegistry(), 100, 60_000));
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 60_000);
+        jwtService.init();
+    }
+
+    @Test
+    void readsTheAuthzClaim() {
+        AuthoritySet authorities = AuthoritySet.of(Set.of(RoleName.ADMIN), Set.of(PermissionName.MANAGE_USERS));
+
+        Optional<VerifiedClaims> claims = jwtService.verify(token().claim("authz", authorities.encode()).compact());
+
+        assertTrue(claims.isPresent());
+        assertEquals(authorities, claims.get().authorities());
+    }
+
+    @Test
+    void fallsBackToTheLegacyAuthoritiesClaim() {
+        Optional<VerifiedClaims> claims = jwtService.verify(token()
+                .claim("authorities", List.of("VIEW_PROFILE", "ROLE_USER", "RETIRED_PERMISSION"))
+                .compact());
+
+        assertTrue(claims.isPresent());
+        assertEquals(Set.of(RoleName.USER), claims.get().authorities().roles());
+        assertEquals(Set.of(PermissionName.VIEW_PROFILE), claims.get().authorities().permissions());
+    }
+
+    @Test
+    void authzTakesPrecedenceOverLegacyAuthorities() {
+        AuthoritySet authorities = AuthoritySet.of(Set.of(RoleName.CLIENT), Set.of());
+
+        Optional<VerifiedClaims> claims = jwtService.verify(token()
+                .claim("authz", authorities.encode())
+                .claim("authorities", List.of("ROLE_ADMIN"))
+                .compact());
+
+        assertTrue(claims.isPresent());
+        assertEquals(authorities, claims.get().authorities());
+    }
+
+    @Test
+    void rejectsMalformedAuthz() {
+        for (String authz : List.of("", "AQ", "AgA", "AQUA", "not base64!")) {
+            assertTrue(jwtService.verify(token().claim("authz", authz).compact()).isEmpty(), authz);
+        }
+    }
+
+    @Test
+    void malformedAuthzDoesNotFallBackToLegacyAuthorities() {
+        String token = token()
+                .claim("authz", "AQ")
+                .claim("authorities", List.of("ROLE_ADMIN"))
+                .compact();
+
+        assertTrue(jwtService.verify(token).isEmpty());
+    }
+
+    @Test
+    void rejectsTokensWithoutAuthorities() {
+        assertTrue(jwtService.verify(token().compact()).isEmpty());
+        assertTrue(jwtService.verify(token().claim("authorities", "ROLE_ADMIN").compact()).isEmpty());
+    }
+
+    private static JwtBuilder token() {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject("alice@example.com")
+                .claim("sessionId", "0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b")
+                .claim("userStatus", UserStatus.ACTIVE.name())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512);
+    }
+}